@@ -1,20 +1,90 @@
 package backend;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import backend.models.CommandPipeline;
+import backend.models.Journal;
+import backend.models.OrderArchive;
+import backend.models.OrderHistory;
+import backend.models.Snapshot;
 import backend.models.Waiter;
 import backend.models.TableManager;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
 @SpringBootApplication
+@EnableScheduling
 public class Main {
+
+    @Value("${pos.data-dir:data}")
+    private String dataDir;
+
+    @Value("${pos.journal.enabled:true}")
+    private boolean journalEnabled;
+
+    @Value("${pos.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${pos.reports.vector-api:false}")
+    private boolean vectorApi;
+
+    @Value("${pos.writes.single-writer:false}")
+    private boolean singleWriter;
+
+    @Value("${pos.writes.ring-size:1024}")
+    private int ringSize;
+
     public static void main(String[] args) {
         SpringApplication.run(Main.class, args);
     }
 
     @PostConstruct
-    public void init() {
+    public void init() throws IOException {
+        OrderArchive.configure(Paths.get(dataDir, "archive"));
+        OrderHistory.setVectorized(vectorApi);
         Waiter.defineWaiters();
         TableManager.defineTables();
+
+        // Rebuild the floor from the latest snapshot plus the journal after it before serving requests
+        long snapshotSeq = 0;
+        if (snapshotEnabled) {
+            Snapshot.configure(Paths.get(dataDir, "snapshots"));
+            snapshotSeq = Snapshot.restoreLatest();
+        }
+        if (journalEnabled) {
+            Journal.open(Paths.get(dataDir, "journal"), snapshotSeq);
+        }
+
+        // Replay above applies mutations directly; from here on they can go through the single writer
+        if (singleWriter) {
+            CommandPipeline.start(ringSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        CommandPipeline.stop();
+        Journal.close();
+    }
+
+    // Snapshot the floor so restarts replay only a short journal tail
+    @Scheduled(initialDelayString = "${pos.snapshot.interval-ms:60000}", fixedDelayString = "${pos.snapshot.interval-ms:60000}")
+    public void snapshotFloor() throws IOException {
+        if (snapshotEnabled) {
+            Snapshot.take();
+        }
+    }
+
+    // Close the business day: archive paid orders and start fresh totals
+    @Scheduled(cron = "${pos.archive.rollover-cron:0 0 0 * * *}")
+    public void rolloverBusinessDay() {
+        OrderArchive.rollover(LocalDate.now().minusDays(1));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package backend.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import backend.models.Dashboard;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
+public class DashboardController {
+
+    private final StateResponseCache stateResponses;
+
+    public DashboardController(StateResponseCache stateResponses) {
+        this.stateResponses = stateResponses;
+    }
+
+    // DASHBOARD ENDPOINT: Tables, pending orders and counts, waiters and the daily report in one response
+    @GetMapping
+    public ResponseEntity<?> getDashboard(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return stateResponses.get("dashboard", ifNoneMatch, Dashboard::snapshot);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to load dashboard: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package backend.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import backend.models.FloorEvents;
+import backend.models.StateLock;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+// Fans floor change events out to the open Server-Sent Events streams.
+//
+// A single thread does all the sending: batches arrive from FloorEvents in
+// model order and are queued behind each other, so every terminal sees the
+// same sequence. A new stream's initial sync is captured under the StateLock
+// and queued while the lock is still held, so it lands exactly between the
+// batches it already includes and the ones it does not. Each batch is
+// serialised once and the same frames are written to every stream.
+//
+// The listener is only registered with FloorEvents while a stream is open or
+// starting, so with no terminal watching, writes build no events at all.
+@Component
+public class FloorEventStream {
+
+    private static final long HEARTBEAT_SECONDS = 20;
+
+    private final ObjectMapper objectMapper;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    // Streams from subscribe() until they end, including those still waiting for their sync
+    private final Set<SseEmitter> subscribed = new HashSet<>();
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "floor-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Consumer<List<FloorEvents.Event>> listener = this::enqueue;
+
+    public FloorEventStream(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Comments keep idle connections open through proxies and reveal closed ones
+        sender.scheduleWithFixedDelay(() -> broadcast(SseEmitter.event().comment("heartbeat").build()),
+                HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // SUBSCRIBE: Open a stream that starts with a sync of the whole dashboard
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(() -> unsubscribe(emitter));
+        emitter.onError(error -> unsubscribe(emitter));
+
+        StateLock.read(() -> {
+            // Listening before the sync is captured, so every later write reaches the stream
+            synchronized (subscribed) {
+                if (subscribed.isEmpty()) {
+                    FloorEvents.addListener(listener);
+                }
+                subscribed.add(emitter);
+            }
+            Map<String, Object> state = FloorEvents.currentState();
+            sender.execute(() -> start(emitter, state));
+            return null;
+        });
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        FloorEvents.removeListener(listener);
+        sender.shutdownNow();
+        for (SseEmitter emitter : emitters) {
+            emitter.complete();
+        }
+    }
+
+    // HELPER METHODS
+    private void unsubscribe(SseEmitter emitter) {
+        emitters.remove(emitter);
+        synchronized (subscribed) {
+            if (subscribed.remove(emitter) && subscribed.isEmpty()) {
+                FloorEvents.removeListener(listener);
+            }
+        }
+    }
+
+    // Runs under the StateLock write lock, so it only queues the batch
+    private void enqueue(List<FloorEvents.Event> batch) {
+        try {
+            sender.execute(() -> broadcast(serialize(batch)));
+        } catch (RejectedExecutionException e) {
+            // Shutting down, the streams are being closed anyway
+        }
+    }
+
+    private void start(SseEmitter emitter, Map<String, Object> state) {
+        try {
+            emitter.send(serialize(List.of(new FloorEvents.Event(FloorEvents.SYNC, state))));
+            synchronized (subscribed) {
+                // Not if it already ended while the sync was queued
+                if (subscribed.contains(emitter)) {
+                    emitters.add(emitter);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> serialize(List<FloorEvents.Event> batch) {
+        Set<ResponseBodyEmitter.DataWithMediaType> frames = new LinkedHashSet<>();
+        for (FloorEvents.Event event : batch) {
+            try {
+                String json = objectMapper.writeValueAsString(event.getData());
+                frames.addAll(SseEmitter.event().name(event.getType()).data(json, MediaType.TEXT_PLAIN).build());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialise " + event.getType() + " event", e);
+            }
+        }
+        return frames;
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> frames) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(frames);
+            } catch (IOException | IllegalStateException e) {
+                // The terminal went away; drop it here rather than waiting for the container to notice
+                unsubscribe(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package backend.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class FloorEventsController {
+
+    private final FloorEventStream stream;
+
+    public FloorEventsController(FloorEventStream stream) {
+        this.stream = stream;
+    }
+
+    // EVENTS ENDPOINT: Live dashboard changes as Server-Sent Events, starting with a full sync
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFloorEvents() {
+        return stream.subscribe();
+    }
+}
@@ -0,0 +1,207 @@
+package backend.controllers;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Stored responses for requests sent with an Idempotency-Key.
+//
+// The first request for a key installs a pending entry and runs; concurrent
+// retries with the same key wait for it instead of running again. Completed
+// entries are kept in insertion order, which is also expiry order because every
+// entry lives for the same TTL, so eviction only ever looks at the head of the
+// queue. The cache is capped both by entry count and by stored bytes.
+//
+// Each entry also keeps a hash of the request body, so a key reused for a
+// different request is reported as a mismatch instead of replaying a response
+// that belongs to another body.
+@Component
+public class IdempotencyCache {
+
+    // Rough per-entry overhead on top of the key and body, for the byte cap
+    private static final int ENTRY_OVERHEAD_BYTES = 192;
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> completedInOrder = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong storedEntries = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+    private final AtomicLong expiredEvictions = new AtomicLong();
+    private final AtomicLong capacityEvictions = new AtomicLong();
+
+    public IdempotencyCache(
+            @Value("${pos.idempotency.ttl-seconds:600}") long ttlSeconds,
+            @Value("${pos.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${pos.idempotency.max-bytes:16777216}") long maxBytes) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    // LOOKUP: Stored response for the key, a mismatch, or a claim the caller must complete or abandon
+    public Claim claim(String key, byte[] requestHash) throws InterruptedException {
+        while (true) {
+            Entry fresh = new Entry(key, requestHash);
+            Entry existing = entries.putIfAbsent(key, fresh);
+            if (existing == null) {
+                misses.incrementAndGet();
+                return new Claim(fresh, null, false);
+            }
+
+            // Still running with another body: the key is taken, whatever that request's outcome
+            if (!existing.result.isDone() && !existing.matches(requestHash)) {
+                mismatches.incrementAndGet();
+                return new Claim(null, null, true);
+            }
+
+            StoredResponse stored;
+            try {
+                stored = existing.result.get();
+            } catch (ExecutionException e) {
+                stored = null;
+            }
+
+            if (stored != null && System.nanoTime() - existing.completedAt < ttlNanos) {
+                if (!existing.matches(requestHash)) {
+                    mismatches.incrementAndGet();
+                    return new Claim(null, null, true);
+                }
+                hits.incrementAndGet();
+                return new Claim(null, stored, false);
+            }
+
+            // The original failed or the entry has expired: run the request again.
+            // An expired entry stays queued until evict() accounts for it.
+            entries.remove(key, existing);
+        }
+    }
+
+    // STORE: Keep the response of a successful request and evict whatever no longer fits
+    public void complete(Claim claim, StoredResponse response) {
+        Entry entry = claim.entry;
+        entry.size = ENTRY_OVERHEAD_BYTES + entry.key.length() * 2L + response.getBody().length;
+        entry.completedAt = System.nanoTime();
+        entry.result.complete(response);
+
+        storedBytes.addAndGet(entry.size);
+        storedEntries.incrementAndGet();
+        completedInOrder.add(entry);
+        evict();
+    }
+
+    // STORE: Drop a claim whose request failed, so a retry runs it again
+    public void abandon(Claim claim) {
+        entries.remove(claim.entry.key, claim.entry);
+        claim.entry.result.complete(null);
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("entries", storedEntries.get());
+        stats.put("bytes", storedBytes.get());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("mismatches", mismatches.get());
+        stats.put("expiredEvictions", expiredEvictions.get());
+        stats.put("capacityEvictions", capacityEvictions.get());
+        return stats;
+    }
+
+    // HELPER METHODS
+    private void evict() {
+        long now = System.nanoTime();
+        while (true) {
+            Entry oldest = completedInOrder.peek();
+            if (oldest == null)
+                return;
+
+            boolean expired = now - oldest.completedAt >= ttlNanos;
+            boolean overCapacity = storedEntries.get() > maxEntries || storedBytes.get() > maxBytes;
+            if (!expired && !overCapacity)
+                return;
+
+            // Only the thread that dequeues an entry accounts for it
+            if (!completedInOrder.remove(oldest))
+                continue;
+            storedBytes.addAndGet(-oldest.size);
+            storedEntries.decrementAndGet();
+            entries.remove(oldest.key, oldest);
+            (expired ? expiredEvictions : capacityEvictions).incrementAndGet();
+        }
+    }
+
+    // INNER CLASSES
+    public static class StoredResponse {
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        public StoredResponse(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    public static class Claim {
+        private final Entry entry;
+        private final StoredResponse stored;
+        private final boolean mismatch;
+
+        Claim(Entry entry, StoredResponse stored, boolean mismatch) {
+            this.entry = entry;
+            this.stored = stored;
+            this.mismatch = mismatch;
+        }
+
+        // Response from an earlier request with the same key, or null if this request should run
+        public StoredResponse getStored() {
+            return stored;
+        }
+
+        // The key was already used with a different request body; neither run nor replay
+        public boolean isMismatch() {
+            return mismatch;
+        }
+    }
+
+    private static class Entry {
+        private final String key;
+        private final byte[] requestHash;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        private volatile long completedAt;
+        private long size;
+
+        Entry(String key, byte[] requestHash) {
+            this.key = key;
+            this.requestHash = requestHash;
+        }
+
+        boolean matches(byte[] otherHash) {
+            return MessageDigest.isEqual(requestHash, otherHash);
+        }
+    }
+}
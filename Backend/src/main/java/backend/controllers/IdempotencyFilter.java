@@ -0,0 +1,171 @@
+package backend.controllers;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// Makes every mutating (POST) endpoint safe to retry. A request carrying an
+// Idempotency-Key runs once; later requests with the same key on the same
+// endpoint get the stored response back, marked with Idempotent-Replayed.
+// Only successful responses are stored, so a failed request can be retried.
+// The stored entry remembers a hash of the request body, and reusing a key with
+// a different body is refused with 422 rather than answered with a response
+// that belongs to another request.
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyCache cache;
+
+    public IdempotencyFilter(IdempotencyCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        // The body is read up front to hash it, then handed to the controller from memory
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, request.getInputStream().readAllBytes());
+
+        // Keys are scoped to the endpoint so one key cannot replay another endpoint's result
+        IdempotencyCache.Claim claim;
+        try {
+            claim = cache.claim(request.getRequestURI() + " " + key, sha256(cachedRequest.body));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        if (claim.isMismatch()) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    HEADER + " was already used with a different request body");
+            return;
+        }
+
+        IdempotencyCache.StoredResponse stored = claim.getStored();
+        if (stored != null) {
+            response.setStatus(stored.getStatus());
+            response.setContentType(stored.getContentType());
+            response.setHeader(REPLAYED_HEADER, "true");
+            // The controller's @CrossOrigin never runs for a replay, so mirror its policy here
+            if (request.getHeader(HttpHeaders.ORIGIN) != null) {
+                response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+            }
+            response.setContentLength(stored.getBody().length);
+            response.getOutputStream().write(stored.getBody());
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(cachedRequest, wrapper);
+            int status = wrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                cache.complete(claim, new IdempotencyCache.StoredResponse(status, wrapper.getContentType(),
+                        wrapper.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                cache.abandon(claim);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // HELPER METHODS
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // INNER CLASSES
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The body is already in memory, so an async reader gets all of it straight away
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    if (!isAsyncStarted()) {
+                        throw new IllegalStateException("Read listeners need an async request");
+                    }
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : "UTF-8";
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), encoding));
+        }
+    }
+}
@@ -1,24 +1,31 @@
 package backend.controllers;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import backend.models.Order;
 
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/menu")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class MenuController {
 
+    private final MenuResponseCache menuResponses;
+
+    public MenuController(MenuResponseCache menuResponses) {
+        this.menuResponses = menuResponses;
+    }
+
     // Get all menu items
     @GetMapping("/items")
-    public ResponseEntity<List<Map<String, Object>>> getMenuItems() {
+    public ResponseEntity<?> getMenuItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<Map<String, Object>> menuData = Order.getAllMenuItems();
-            return ResponseEntity.ok(menuData);
+            return menuResponses.items(ifNoneMatch, acceptEncoding);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(List.of(Map.of("error", "Failed to load menu items")));
@@ -27,10 +34,11 @@ public class MenuController {
 
     // Get menu items with descriptions
     @GetMapping("/items-with-descriptions")
-    public ResponseEntity<List<Map<String, Object>>> getMenuItemsWithDescriptions() {
+    public ResponseEntity<?> getMenuItemsWithDescriptions(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<Map<String, Object>> menuData = Order.getMenuItemsWithDescriptions();
-            return ResponseEntity.ok(menuData);
+            return menuResponses.itemsWithDescriptions(ifNoneMatch, acceptEncoding);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(List.of(Map.of("error", "Failed to load menu items")));
@@ -39,13 +47,14 @@ public class MenuController {
 
     // Get menu items by category
     @GetMapping("/categories/{category}")
-    public ResponseEntity<List<Map<String, Object>>> getMenuItemsByCategory(@PathVariable String category) {
+    public ResponseEntity<?> getMenuItemsByCategory(@PathVariable String category,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<Map<String, Object>> menuData = Order.getMenuItemsByCategory(category);
-            return ResponseEntity.ok(menuData);
+            return menuResponses.category(category, ifNoneMatch, acceptEncoding);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(List.of(Map.of("error", "Failed to load menu items by category")));
         }
     }
-}
\ No newline at end of file
+}
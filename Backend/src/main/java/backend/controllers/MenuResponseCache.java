@@ -0,0 +1,138 @@
+package backend.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import backend.models.MenuCatalog;
+import backend.models.Order;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+// Pre-serialised menu responses. Every menu view and category is rendered to
+// JSON once at startup, plain and gzip-compressed, and wrapped in ready-made
+// ResponseEntity objects, so serving the menu only writes bytes. Responses
+// carry a weak ETag derived from the rendered JSON, so a redeploy with a
+// changed menu invalidates terminals' copies; a matching If-None-Match gets a
+// 304 with no body.
+@Component
+public class MenuResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final Views views;
+
+    public MenuResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.views = new Views(MenuCatalog.current());
+    }
+
+    // MENU VIEWS
+    public ResponseEntity<byte[]> items(String ifNoneMatch, String acceptEncoding) {
+        return views.items.select(ifNoneMatch, acceptEncoding);
+    }
+
+    public ResponseEntity<byte[]> itemsWithDescriptions(String ifNoneMatch, String acceptEncoding) {
+        return views.itemsWithDescriptions.select(ifNoneMatch, acceptEncoding);
+    }
+
+    public ResponseEntity<byte[]> category(String category, String ifNoneMatch, String acceptEncoding) {
+        CachedResponse response = views.byCategory.get(category);
+        if (response == null && category != null) {
+            response = views.byCategory.get(category.toLowerCase(Locale.ROOT));
+        }
+        return (response != null ? response : views.emptyCategory).select(ifNoneMatch, acceptEncoding);
+    }
+
+    // HELPER METHODS
+    private CachedResponse render(String view, List<Map<String, Object>> menuData) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(menuData);
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            return new CachedResponse("W/\"menu-" + view + "-" + Long.toHexString(crc.getValue()) + "\"", json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise menu view " + view, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 2 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // INNER CLASSES
+    private class Views {
+        private final CachedResponse items;
+        private final CachedResponse itemsWithDescriptions;
+        private final CachedResponse emptyCategory;
+
+        // Keyed by the category as spelled in the menu and by its lower-case form
+        private final Map<String, CachedResponse> byCategory = new HashMap<>();
+
+        Views(MenuCatalog catalog) {
+            items = render("items", Order.buildMenuData(catalog.getItems(), false));
+            itemsWithDescriptions = render("described", Order.buildMenuData(catalog.getItems(), true));
+            emptyCategory = render("none", List.of());
+
+            List<String> categories = catalog.getCategories();
+            for (int i = 0; i < categories.size(); i++) {
+                String category = categories.get(i);
+                CachedResponse response = render("category-" + i,
+                        Order.buildMenuData(catalog.getByCategory(category), true));
+                byCategory.put(category, response);
+                byCategory.put(category.toLowerCase(Locale.ROOT), response);
+            }
+        }
+    }
+
+    private static class CachedResponse {
+        private final String opaqueTag;
+        private final ResponseEntity<byte[]> plain;
+        private final ResponseEntity<byte[]> gzipped;
+        private final ResponseEntity<byte[]> notModified;
+
+        CachedResponse(String etag, byte[] json) {
+            // Weak comparison: a tag matches with or without the W/ prefix
+            this.opaqueTag = etag.substring(2);
+
+            HttpHeaders common = new HttpHeaders();
+            common.setETag(etag);
+            common.setCacheControl("no-cache");
+            common.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+
+            HttpHeaders plainHeaders = new HttpHeaders();
+            plainHeaders.putAll(common);
+            plainHeaders.setContentType(MediaType.APPLICATION_JSON);
+            this.plain = new ResponseEntity<>(json, HttpHeaders.readOnlyHttpHeaders(plainHeaders), HttpStatus.OK);
+
+            HttpHeaders gzipHeaders = new HttpHeaders();
+            gzipHeaders.putAll(plainHeaders);
+            gzipHeaders.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            this.gzipped = new ResponseEntity<>(gzip(json), HttpHeaders.readOnlyHttpHeaders(gzipHeaders),
+                    HttpStatus.OK);
+
+            this.notModified = new ResponseEntity<>(HttpHeaders.readOnlyHttpHeaders(common),
+                    HttpStatus.NOT_MODIFIED);
+        }
+
+        ResponseEntity<byte[]> select(String ifNoneMatch, String acceptEncoding) {
+            if (ifNoneMatch != null && (ifNoneMatch.contains(opaqueTag) || ifNoneMatch.equals("*"))) {
+                return notModified;
+            }
+            return acceptEncoding != null && acceptEncoding.contains("gzip") ? gzipped : plain;
+        }
+    }
+}
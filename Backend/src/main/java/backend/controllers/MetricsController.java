@@ -0,0 +1,55 @@
+package backend.controllers;
+
+import backend.models.Metrics;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    private final IdempotencyCache idempotencyCache;
+    private final FloorEventStream floorEvents;
+
+    public MetricsController(IdempotencyCache idempotencyCache, FloorEventStream floorEvents) {
+        this.idempotencyCache = idempotencyCache;
+        this.floorEvents = floorEvents;
+    }
+
+    // METRICS ENDPOINT: Everything in the Prometheus text format, for a local scraper
+    @GetMapping("/metrics")
+    public ResponseEntity<String> getMetrics() {
+        try {
+            StringBuilder out = new StringBuilder(8192);
+            Metrics.writePrometheus(out);
+
+            Map<String, Long> idempotency = idempotencyCache.getStats();
+            Metrics.writeGauge(out, "pos_idempotency_entries", "Stored idempotent responses",
+                    idempotency.get("entries"));
+            Metrics.writeGauge(out, "pos_idempotency_bytes", "Bytes held by stored idempotent responses",
+                    idempotency.get("bytes"));
+            Metrics.writeCounter(out, "pos_idempotency_hits_total", "Requests answered from a stored response",
+                    idempotency.get("hits"));
+            Metrics.writeCounter(out, "pos_idempotency_misses_total", "Idempotency keys seen for the first time",
+                    idempotency.get("misses"));
+            Metrics.writeCounter(out, "pos_idempotency_mismatches_total",
+                    "Requests refused for reusing a key with a different body", idempotency.get("mismatches"));
+            Map<String, Long> evictions = new LinkedHashMap<>();
+            evictions.put("expired", idempotency.get("expiredEvictions"));
+            evictions.put("capacity", idempotency.get("capacityEvictions"));
+            Metrics.writeCounter(out, "pos_idempotency_evictions_total",
+                    "Stored idempotent responses dropped, by reason", "reason", evictions);
+            Metrics.writeGauge(out, "pos_event_subscribers", "Open dashboard event streams",
+                    floorEvents.getSubscriberCount());
+
+            return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(out.toString());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package backend.controllers;
+
+import backend.models.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Times every request into a latency histogram keyed by method and route
+// template, so /api/orders/7 and /api/orders/8 land in the same series.
+// Runs ahead of the other filters so idempotent replays are timed as well;
+// for an event stream only the initial dispatch is counted.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricsFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            String route = routeOf(request, response);
+            Metrics.request(request.getMethod(), route).recordSince(start);
+            if (response.getStatus() >= 500) {
+                Metrics.serverError(request.getMethod(), route);
+            }
+        }
+    }
+
+    // HELPER METHODS
+    private static String routeOf(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null)
+            return pattern.toString();
+        // A replay is answered before any handler is matched
+        if (response.getHeader(IdempotencyFilter.REPLAYED_HEADER) != null)
+            return "idempotent-replay";
+        return "unmatched";
+    }
+}
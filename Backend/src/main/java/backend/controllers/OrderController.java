@@ -1,18 +1,30 @@
 package backend.controllers;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import backend.models.Order;
+import backend.models.OrderBatch;
 
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class OrderController {
 
+    private final StateResponseCache stateResponses;
+    private final int maxBatchCommands;
+
+    public OrderController(StateResponseCache stateResponses,
+            @Value("${pos.batch.max-commands:500}") int maxBatchCommands) {
+        this.stateResponses = stateResponses;
+        this.maxBatchCommands = maxBatchCommands;
+    }
+
     static class OrderRequest {
         private int patronId;
         private List<Order.OrderItemRequest> items;
@@ -59,6 +71,26 @@ public class OrderController {
         }
     }
 
+    // BATCH ENDPOINT: Ordered add-patron, create, add-items and mark-paid commands in one request
+    @PostMapping("/batch")
+    public ResponseEntity<?> executeBatch(@RequestBody List<OrderBatch.Command> commands) {
+        try {
+            if (commands == null || commands.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Batch has no commands"));
+            }
+            // The whole batch holds the write lock, so a huge one would stall every other terminal
+            if (commands.size() > maxBatchCommands) {
+                return ResponseEntity.badRequest().body(Map.of("error",
+                        "Batch has " + commands.size() + " commands, the limit is " + maxBatchCommands));
+            }
+            List<Map<String, Object>> results = OrderBatch.execute(commands);
+            return ResponseEntity.ok(Map.of("results", results));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to execute batch: " + e.getMessage()));
+        }
+    }
+
     // ORDER RETRIEVAL ENDPOINTS
     @GetMapping("/{orderId}")
     public ResponseEntity<Map<String, Object>> getOrderById(@PathVariable int orderId) {
@@ -72,20 +104,20 @@ public class OrderController {
     }
 
     @GetMapping("/unpaid")
-    public ResponseEntity<List<Map<String, Object>>> getUnpaidOrders() {
+    public ResponseEntity<?> getUnpaidOrders(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Map<String, Object>> unpaidOrders = Order.getUnpaidOrders();
-            return ResponseEntity.ok(unpaidOrders);
+            return stateResponses.get("orders/unpaid", ifNoneMatch, Order::getUnpaidOrders);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
     @GetMapping("/pending")
-    public ResponseEntity<List<Map<String, Object>>> getPendingOrders() {
+    public ResponseEntity<?> getPendingOrders(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Map<String, Object>> pendingOrders = Order.getPendingOrders();
-            return ResponseEntity.ok(pendingOrders);
+            return stateResponses.get("orders/pending", ifNoneMatch, Order::getPendingOrders);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
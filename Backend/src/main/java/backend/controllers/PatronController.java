@@ -1,9 +1,11 @@
 package backend.controllers;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import backend.models.Patron;
+import backend.models.StateLock;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,7 +13,7 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/patrons")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class PatronController {
 
     // REQUEST/RESPONSE CLASSES
@@ -45,6 +47,12 @@ public class PatronController {
         }
     }
 
+    private final StateResponseCache stateResponses;
+
+    public PatronController(StateResponseCache stateResponses) {
+        this.stateResponses = stateResponses;
+    }
+
     // PATRON CREATION ENDPOINTS
 
     @PostMapping("/add")
@@ -62,25 +70,25 @@ public class PatronController {
 
     @GetMapping("/{id}")
     public ResponseEntity<PatronResponse> getPatronById(@PathVariable int id) {
-        Patron patron = Patron.findById(id);
-        return patron != null ? ResponseEntity.ok(new PatronResponse(patron)) : ResponseEntity.notFound().build();
+        PatronResponse patron = StateLock.read(() -> {
+            Patron found = Patron.findById(id);
+            return found != null ? new PatronResponse(found) : null;
+        });
+        return patron != null ? ResponseEntity.ok(patron) : ResponseEntity.notFound().build();
     }
 
     @GetMapping
-    public List<PatronResponse> getAllPatrons() {
-        List<PatronResponse> allPatrons = new ArrayList<>();
-        for (Patron patron : Patron.getAll()) {
-            allPatrons.add(new PatronResponse(patron));
-        }
-        return allPatrons;
+    public ResponseEntity<?> getAllPatrons(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return stateResponses.get("patrons", ifNoneMatch, () -> toResponses(Patron.getAll()));
     }
 
     // QUEUE AND ORDER MANAGEMENT ENDPOINTS
     @GetMapping("/queue-counts")
-    public ResponseEntity<Map<String, Integer>> getQueueCounts() {
+    public ResponseEntity<?> getQueueCounts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Integer> counts = Patron.getQueueCounts();
-            return ResponseEntity.ok(counts);
+            return stateResponses.get("patrons/queue-counts", ifNoneMatch, Patron::getQueueCounts);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", -1));
@@ -88,36 +96,32 @@ public class PatronController {
     }
 
     @GetMapping("/without-orders")
-    public ResponseEntity<List<PatronResponse>> getPatronsWithoutOrders() {
+    public ResponseEntity<?> getPatronsWithoutOrders(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<PatronResponse> responses = new ArrayList<>();
-            for (Patron patron : Patron.getWithoutOrders()) {
-                responses.add(new PatronResponse(patron));
-            }
-            return ResponseEntity.ok(responses);
+            return stateResponses.get("patrons/without-orders", ifNoneMatch,
+                    () -> toResponses(Patron.getWithoutOrders()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
     @GetMapping("/with-orders/dinein")
-    public ResponseEntity<List<PatronResponse>> getDineInPatronsWithOrders() {
+    public ResponseEntity<?> getDineInPatronsWithOrders(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<PatronResponse> responses = new ArrayList<>();
-            for (Patron patron : Patron.getDineInWithOrders()) {
-                responses.add(new PatronResponse(patron));
-            }
-            return ResponseEntity.ok(responses);
+            return stateResponses.get("patrons/with-orders/dinein", ifNoneMatch,
+                    () -> toResponses(Patron.getDineInWithOrders()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
     @GetMapping("/pending-counts")
-    public ResponseEntity<Map<String, Integer>> getPendingOrderCounts() {
+    public ResponseEntity<?> getPendingOrderCounts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Integer> counts = Patron.getPendingOrderCounts();
-            return ResponseEntity.ok(counts);
+            return stateResponses.get("patrons/pending-counts", ifNoneMatch, Patron::getPendingOrderCounts);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("dineInPending", 0, "takeoutPending", 0));
@@ -137,4 +141,13 @@ public class PatronController {
                             "message", "Error checking availability: " + e.getMessage()));
         }
     }
+
+    // HELPER METHODS
+    private static List<PatronResponse> toResponses(List<Patron> patrons) {
+        List<PatronResponse> responses = new ArrayList<>(patrons.size());
+        for (Patron patron : patrons) {
+            responses.add(new PatronResponse(patron));
+        }
+        return responses;
+    }
 }
\ No newline at end of file
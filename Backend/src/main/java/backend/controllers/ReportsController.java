@@ -1,22 +1,37 @@
 package backend.controllers;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import backend.models.OrderArchive;
 import backend.models.Reports;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/reports")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class ReportsController {
 
+    private final StateResponseCache stateResponses;
+    private final int shiftHours;
+
+    public ReportsController(StateResponseCache stateResponses,
+            @Value("${pos.analytics.shift-hours:8}") int shiftHours) {
+        this.stateResponses = stateResponses;
+        this.shiftHours = shiftHours;
+    }
+
     // REPORTS ENDPOINTS: Get complete daily report
     @GetMapping("/daily")
-    public ResponseEntity<Map<String, Object>> getDailyReport() {
+    public ResponseEntity<?> getDailyReport(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Object> response = Reports.getCompleteDailyReport();
-            return ResponseEntity.ok(response);
+            return stateResponses.get("reports/daily", ifNoneMatch, Reports::getCompleteDailyReport);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
@@ -25,10 +40,10 @@ public class ReportsController {
 
     // REPORTS ENDPOINTS: Get overview statistics
     @GetMapping("/overview")
-    public ResponseEntity<Map<String, Object>> getOverviewReport() {
+    public ResponseEntity<?> getOverviewReport(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Object> overview = Reports.getOverviewReport();
-            return ResponseEntity.ok(overview);
+            return stateResponses.get("reports/overview", ifNoneMatch, Reports::getOverviewReport);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -36,10 +51,10 @@ public class ReportsController {
 
     // REPORTS ENDPOINTS: Get staff performance report
     @GetMapping("/staff")
-    public ResponseEntity<Map<String, Object>> getStaffReport() {
+    public ResponseEntity<?> getStaffReport(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Object> staff = Reports.getStaffReport();
-            return ResponseEntity.ok(staff);
+            return stateResponses.get("reports/staff", ifNoneMatch, Reports::getStaffReport);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -47,10 +62,10 @@ public class ReportsController {
 
     // REPORTS ENDPOINTS: Get menu analysis report
     @GetMapping("/menu")
-    public ResponseEntity<Map<String, Object>> getMenuReport() {
+    public ResponseEntity<?> getMenuReport(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Object> menu = Reports.getMenuReport();
-            return ResponseEntity.ok(menu);
+            return stateResponses.get("reports/menu", ifNoneMatch, Reports::getMenuReport);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -58,12 +73,89 @@ public class ReportsController {
 
     // REPORTS ENDPOINTS: Get financial report
     @GetMapping("/finance")
-    public ResponseEntity<Map<String, Object>> getFinanceReport() {
+    public ResponseEntity<?> getFinanceReport(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return stateResponses.get("reports/finance", ifNoneMatch, Reports::getFinanceReport);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // REPORTS ENDPOINTS: Get today's revenue by category, waiter and hour
+    @GetMapping("/breakdown")
+    public ResponseEntity<?> getBreakdownReport(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return stateResponses.get("reports/breakdown", ifNoneMatch, Reports::getBreakdownReport);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // ARCHIVE ENDPOINTS: List archived business days
+    @GetMapping("/archive")
+    public ResponseEntity<List<String>> getArchivedDays() {
+        try {
+            List<String> days = OrderArchive.archivedDays().stream().map(LocalDate::toString).toList();
+            return ResponseEntity.ok(days);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // ROLLING ENDPOINTS: Last 15 minutes, last hour and current shift. These move with the
+    // clock as well as with the state, so they are not served from the epoch cache.
+    @GetMapping("/rolling")
+    public ResponseEntity<Map<String, Object>> getRollingReport() {
+        try {
+            return ResponseEntity.ok(Reports.getRollingReport(shiftHours));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // ROLLING ENDPOINTS: Hourly histogram, up to the last 24 hours
+    @GetMapping("/hourly")
+    public ResponseEntity<?> getHourlyReport(@RequestParam(defaultValue = "24") int hours) {
+        if (hours < 1 || hours > 24) {
+            return ResponseEntity.badRequest().body(Map.of("error", "hours must be between 1 and 24"));
+        }
+        try {
+            return ResponseEntity.ok(Reports.getHourlyReport(hours));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // ARCHIVE ENDPOINTS: Get one report over all archived days in a date range (yyyy-MM-dd, inclusive)
+    @GetMapping("/archive/range")
+    public ResponseEntity<Map<String, Object>> getArchivedRangeReport(@RequestParam String from,
+            @RequestParam String to) {
+        try {
+            LocalDate first = LocalDate.parse(from);
+            LocalDate last = LocalDate.parse(to);
+            if (last.isBefore(first)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "to must not be before from"));
+            }
+            return ResponseEntity.ok(Reports.getArchivedRangeReport(first, last));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid date: " + e.getParsedString()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // ARCHIVE ENDPOINTS: Get complete report for an archived business day (yyyy-MM-dd)
+    @GetMapping("/archive/{date}")
+    public ResponseEntity<Map<String, Object>> getArchivedDailyReport(@PathVariable String date) {
         try {
-            Map<String, Object> finance = Reports.getFinanceReport();
-            return ResponseEntity.ok(finance);
+            Map<String, Object> report = Reports.getArchivedDailyReport(LocalDate.parse(date));
+            return report != null ? ResponseEntity.ok(report) : ResponseEntity.notFound().build();
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid date: " + date));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package backend.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import backend.models.StateLock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Serialised responses of read endpoints, valid for one StateLock epoch.
+//
+// Every model mutation bumps the epoch, so a response computed at the current
+// epoch is still exactly what the endpoint would return now. While nothing
+// changes, a request costs one volatile read plus a map lookup and gets the
+// stored bytes. Results are computed under the StateLock read lock, which
+// pins the epoch they belong to. The ETag is the epoch itself (prefixed with
+// a per-start id so tags from before a restart never match), so a client
+// holding the current tag gets a 304 without anything being computed.
+@Component
+public class StateResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentHashMap<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+    public StateResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // LOOKUP: Response for the key at the current epoch, computing it if the state has moved on
+    public ResponseEntity<byte[]> get(String key, String ifNoneMatch, Supplier<?> compute) {
+        long epoch = StateLock.epoch();
+        CachedResponse cached = entries.get(key);
+        if (cached != null && cached.epoch == epoch) {
+            return cached.select(ifNoneMatch);
+        }
+        if (ifNoneMatch != null && ifNoneMatch.contains(opaqueTag(epoch))) {
+            return notModified(etag(epoch));
+        }
+
+        long[] computedAt = new long[1];
+        Object body = StateLock.read(() -> {
+            computedAt[0] = StateLock.epoch();
+            return compute.get();
+        });
+
+        CachedResponse fresh = render(computedAt[0], body);
+        // Concurrent misses may finish out of order; keep whichever saw the newer state
+        entries.merge(key, fresh, (old, candidate) -> old.epoch >= candidate.epoch ? old : candidate);
+        return fresh.select(ifNoneMatch);
+    }
+
+    // HELPER METHODS
+    private CachedResponse render(long epoch, Object body) {
+        try {
+            return new CachedResponse(epoch, etag(epoch), objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise response", e);
+        }
+    }
+
+    private String opaqueTag(long epoch) {
+        return "\"state-" + bootId + "-" + epoch + "\"";
+    }
+
+    private String etag(long epoch) {
+        return "W/" + opaqueTag(epoch);
+    }
+
+    private static ResponseEntity<byte[]> notModified(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl("no-cache");
+        return new ResponseEntity<>(HttpHeaders.readOnlyHttpHeaders(headers), HttpStatus.NOT_MODIFIED);
+    }
+
+    // INNER CLASSES
+    private static class CachedResponse {
+        private final long epoch;
+        private final String opaqueTag;
+        private final ResponseEntity<byte[]> ok;
+        private final ResponseEntity<byte[]> notModified;
+
+        CachedResponse(long epoch, String etag, byte[] json) {
+            this.epoch = epoch;
+            // Weak comparison: a tag matches with or without the W/ prefix
+            this.opaqueTag = etag.substring(2);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(etag);
+            headers.setCacheControl("no-cache");
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            this.ok = new ResponseEntity<>(json, HttpHeaders.readOnlyHttpHeaders(headers), HttpStatus.OK);
+            this.notModified = StateResponseCache.notModified(etag);
+        }
+
+        ResponseEntity<byte[]> select(String ifNoneMatch) {
+            if (ifNoneMatch != null && (ifNoneMatch.contains(opaqueTag) || ifNoneMatch.equals("*"))) {
+                return notModified;
+            }
+            return ok;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package backend.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/system")
+@CrossOrigin(origins = "*")
+public class SystemController {
+
+    private final IdempotencyCache idempotencyCache;
+
+    public SystemController(IdempotencyCache idempotencyCache) {
+        this.idempotencyCache = idempotencyCache;
+    }
+
+    // Idempotency cache size, hit rate and evictions
+    @GetMapping("/idempotency")
+    public ResponseEntity<Map<String, Long>> getIdempotencyStats() {
+        try {
+            return ResponseEntity.ok(idempotencyCache.getStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+}
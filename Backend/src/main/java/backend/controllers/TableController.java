@@ -1,5 +1,6 @@
 package backend.controllers;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,15 +11,21 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tables")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class TableController {
 
+    private final StateResponseCache stateResponses;
+
+    public TableController(StateResponseCache stateResponses) {
+        this.stateResponses = stateResponses;
+    }
+
     // TABLES ENDPOINTS: Get all tables with details
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllTables() {
+    public ResponseEntity<?> getAllTables(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Map<String, Object>> tablesData = TableManager.getAllTablesWithDetails();
-            return ResponseEntity.ok(tablesData);
+            return stateResponses.get("tables", ifNoneMatch, TableManager::getAllTablesWithDetails);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(List.of(Map.of("error", "Failed to load tables: " + e.getMessage())));
@@ -27,10 +34,10 @@ public class TableController {
 
     // TABLES ENDPOINTS: Get table status summary
     @GetMapping("/status")
-    public ResponseEntity<Map<String, Object>> getTableStatus() {
+    public ResponseEntity<?> getTableStatus(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Object> status = TableManager.getTableStatus();
-            return ResponseEntity.ok(status);
+            return stateResponses.get("tables/status", ifNoneMatch, TableManager::getTableStatus);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to get table status"));
@@ -1,8 +1,10 @@
 package backend.controllers;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import backend.models.StateLock;
 import backend.models.Waiter;
 
 import java.util.List;
@@ -11,15 +13,21 @@ import java.util.HashMap;
 
 @RestController
 @RequestMapping("/api/waiters")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class WaiterController {
 
+    private final StateResponseCache stateResponses;
+
+    public WaiterController(StateResponseCache stateResponses) {
+        this.stateResponses = stateResponses;
+    }
+
     // Get basic waiter statistics
     @GetMapping
-    public ResponseEntity<List<Waiter.WaiterStats>> getWaiterStats() {
+    public ResponseEntity<?> getWaiterStats(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Waiter.WaiterStats> stats = Waiter.getWaiterStats();
-            return ResponseEntity.ok(stats);
+            return stateResponses.get("waiters", ifNoneMatch, Waiter::getWaiterStats);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
@@ -27,10 +35,10 @@ public class WaiterController {
 
     // Get detailed waiter information
     @GetMapping("/detailed")
-    public ResponseEntity<List<Map<String, Object>>> getWaitersDetailed() {
+    public ResponseEntity<?> getWaitersDetailed(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Map<String, Object>> waitersData = Waiter.getWaitersDetailed();
-            return ResponseEntity.ok(waitersData);
+            return stateResponses.get("waiters/detailed", ifNoneMatch, Waiter::getWaitersDetailed);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(List.of(Map.of("error", "Failed to load waiter details")));
@@ -41,7 +49,7 @@ public class WaiterController {
     @GetMapping("/availability/check-dinein")
     public ResponseEntity<Map<String, Object>> checkDineInAvailability() {
         try {
-            boolean hasAvailableWaiters = Waiter.hasAvailableWaitersForDineIn();
+            boolean hasAvailableWaiters = StateLock.read(Waiter::hasAvailableWaitersForDineIn);
             Map<String, Object> response = new HashMap<>();
             response.put("available", hasAvailableWaiters);
             response.put("message", hasAvailableWaiters ? "Waiters available for dine-in"
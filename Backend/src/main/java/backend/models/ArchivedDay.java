@@ -0,0 +1,150 @@
+package backend.models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Memory-mapped reader for one archived business day. Records stay in the
+// mapped segment, only the small order-id index is held on the heap.
+// All reads use absolute offsets so one reader can be shared across threads.
+public class ArchivedDay {
+    private final LocalDate day;
+    private final MappedByteBuffer segment;
+
+    // Offsets in file order, for sequential scans
+    private final long[] offsets;
+
+    // Order ids sorted ascending with their matching offsets, for lookup
+    private final int[] sortedOrderIds;
+    private final long[] sortedOffsets;
+
+    private ArchivedDay(LocalDate day, MappedByteBuffer segment, long[] offsets, int[] sortedOrderIds,
+            long[] sortedOffsets) {
+        this.day = day;
+        this.segment = segment;
+        this.offsets = offsets;
+        this.sortedOrderIds = sortedOrderIds;
+        this.sortedOffsets = sortedOffsets;
+    }
+
+    // OPEN: Map the segment and load its index
+    static ArchivedDay open(LocalDate day, Path segmentPath, Path indexPath) throws IOException {
+        MappedByteBuffer segment;
+        try (FileChannel seg = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            segment = seg.map(FileChannel.MapMode.READ_ONLY, 0, seg.size());
+        }
+        if (segment.limit() < OrderArchive.SEGMENT_HEADER_BYTES
+                || segment.getInt(0) != OrderArchive.SEGMENT_MAGIC
+                || segment.getShort(4) != OrderArchive.SEGMENT_VERSION) {
+            throw new IOException("Not a supported archive segment: " + segmentPath);
+        }
+
+        ByteBuffer index;
+        try (FileChannel idx = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            index = ByteBuffer.allocate((int) (idx.size() - idx.size() % OrderArchive.INDEX_ENTRY_BYTES));
+            while (index.hasRemaining() && idx.read(index) > 0) {
+            }
+            index.flip();
+        }
+
+        int count = index.remaining() / OrderArchive.INDEX_ENTRY_BYTES;
+        int[] orderIds = new int[count];
+        long[] offsets = new long[count];
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            orderIds[i] = index.getInt();
+            offsets[i] = index.getLong();
+            keys[i] = ((long) orderIds[i] << 32) | i;
+        }
+
+        // Sort (orderId, position) pairs packed into longs to avoid boxing
+        Arrays.sort(keys);
+        int[] sortedOrderIds = new int[count];
+        long[] sortedOffsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            int position = (int) keys[i];
+            sortedOrderIds[i] = orderIds[position];
+            sortedOffsets[i] = offsets[position];
+        }
+
+        return new ArchivedDay(day, segment, offsets, sortedOrderIds, sortedOffsets);
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int size() {
+        return offsets.length;
+    }
+
+    // LOOKUP: Archived order by id, or null
+    public ArchivedOrder findOrder(int orderId) {
+        int i = Arrays.binarySearch(sortedOrderIds, orderId);
+        return i >= 0 ? readAt(sortedOffsets[i]) : null;
+    }
+
+    // SCAN: Record at a position in file order, 0 <= position < size()
+    public ArchivedOrder get(int position) {
+        return readAt(offsets[position]);
+    }
+
+    // SCAN: Visit every archived order in file order
+    public void forEach(Consumer<ArchivedOrder> visitor) {
+        for (long offset : offsets) {
+            visitor.accept(readAt(offset));
+        }
+    }
+
+    // HELPER METHODS
+    private ArchivedOrder readAt(long offset) {
+        int pos = Math.toIntExact(offset) + 4;
+
+        int orderId = segment.getInt(pos);
+        int patronId = segment.getInt(pos + 4);
+        int tableNumber = segment.getInt(pos + 8);
+        int serviceType = segment.get(pos + 12);
+        long paidAt = segment.getLong(pos + 13);
+        long totalCents = segment.getLong(pos + 21);
+        pos += 29;
+
+        int[] cursor = { pos };
+        String staffId = readUtf(cursor);
+        int lineCount = segment.getShort(cursor[0]);
+        cursor[0] += 2;
+
+        String[] names = new String[lineCount];
+        String[] categories = new String[lineCount];
+        int[] quantities = new int[lineCount];
+        long[] priceCents = new long[lineCount];
+        for (int line = 0; line < lineCount; line++) {
+            quantities[line] = segment.getInt(cursor[0]);
+            priceCents[line] = segment.getLong(cursor[0] + 4);
+            cursor[0] += 12;
+            names[line] = readUtf(cursor);
+            categories[line] = readUtf(cursor);
+        }
+
+        return new ArchivedOrder(orderId, patronId, tableNumber, serviceType, paidAt, totalCents, staffId,
+                names, categories, quantities, priceCents);
+    }
+
+    private String readUtf(int[] cursor) {
+        int length = segment.getShort(cursor[0]);
+        cursor[0] += 2;
+        if (length < 0)
+            return null;
+
+        byte[] bytes = new byte[length];
+        segment.get(cursor[0], bytes);
+        cursor[0] += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package backend.models;
+
+// Read-only view of one paid order decoded from an archive segment
+public class ArchivedOrder {
+    private final int orderId;
+    private final int patronId;
+    private final int tableNumber;
+    private final int serviceType;
+    private final long paidAt;
+    private final long totalCents;
+    private final String staffId;
+    private final String[] itemNames;
+    private final String[] itemCategories;
+    private final int[] quantities;
+    private final long[] priceCents;
+
+    public ArchivedOrder(int orderId, int patronId, int tableNumber, int serviceType, long paidAt,
+            long totalCents, String staffId, String[] itemNames, String[] itemCategories,
+            int[] quantities, long[] priceCents) {
+        this.orderId = orderId;
+        this.patronId = patronId;
+        this.tableNumber = tableNumber;
+        this.serviceType = serviceType;
+        this.paidAt = paidAt;
+        this.totalCents = totalCents;
+        this.staffId = staffId;
+        this.itemNames = itemNames;
+        this.itemCategories = itemCategories;
+        this.quantities = quantities;
+        this.priceCents = priceCents;
+    }
+
+    // GETTER METHODS
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public int getPatronId() {
+        return patronId;
+    }
+
+    public int getTableNumber() {
+        return tableNumber;
+    }
+
+    public int getServiceType() {
+        return serviceType;
+    }
+
+    public long getPaidAt() {
+        return paidAt;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public String getStaffId() {
+        return staffId;
+    }
+
+    // LINE ACCESS
+    public int getLineCount() {
+        return quantities.length;
+    }
+
+    public String getItemName(int line) {
+        return itemNames[line];
+    }
+
+    public String getItemCategory(int line) {
+        return itemCategories[line];
+    }
+
+    public int getQuantity(int line) {
+        return quantities[line];
+    }
+
+    public long getPriceCents(int line) {
+        return priceCents[line];
+    }
+}
@@ -0,0 +1,245 @@
+package backend.models;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// Single-writer mode for floor-state mutations.
+//
+// When running, StateLock.write no longer runs the mutation on the request
+// thread: it puts it on a bounded ring buffer and waits on the returned
+// future. One writer thread drains whatever has queued up and applies it as
+// one batch under a single write-lock acquisition and journal fsync, then
+// completes the futures. Patron, Waiter and TableManager only ever see one
+// mutating thread, and readers under the read lock (and the StateResponseCache
+// entries keyed by epoch) see the floor as the writer publishes it after each
+// batch, never part way through one.
+//
+// The ring is a lock-free multi-producer single-consumer queue: producers
+// claim a position with a CAS on the tail, and each slot carries a sequence
+// number that says whether it is free for position p (p) or holds the command
+// for position p (p + 1). A full ring makes producers back off until the
+// writer frees a slot, which bounds the queue.
+//
+// A producer can pass the running check just before stop() and publish after
+// the writer's last drain. stop() therefore drains the ring once more after
+// the writer has exited, and a producer that finds the pipeline stopped after
+// publishing drains it itself, so every queued mutation is applied.
+public final class CommandPipeline {
+
+    private static final int SPINS_BEFORE_PARK = 64;
+    private static final long FULL_BACKOFF_NANOS = 20_000;
+
+    private static volatile boolean running = false;
+    private static volatile boolean writerParked = false;
+    private static Thread writer;
+
+    // Ring state; replaced only by start(), before the writer is running
+    private static int mask;
+    private static Command<?>[] commands;
+    private static AtomicLongArray sequences;
+    private static final AtomicLong tail = new AtomicLong();
+    private static volatile long head = 0;
+
+    private CommandPipeline() {
+    }
+
+    // LIFECYCLE: Capacity is rounded up to a power of two
+    public static synchronized void start(int capacity) {
+        if (running) {
+            throw new IllegalStateException("Command pipeline is already running");
+        }
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        mask = size - 1;
+        commands = new Command<?>[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        tail.set(0);
+        head = 0;
+
+        writer = new Thread(CommandPipeline::writeLoop, "state-writer");
+        writer.setDaemon(true);
+        running = true;
+        writer.start();
+    }
+
+    // Applies everything already queued, then stops; later mutations run on their own thread again
+    public static synchronized void stop() {
+        if (!running)
+            return;
+
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+
+        // Whatever was published after the writer's last look runs here instead
+        drainInline();
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    public static boolean isWriterThread() {
+        return Thread.currentThread() == writer;
+    }
+
+    // Mutations waiting for the writer
+    public static long depth() {
+        return running ? tail.get() - head : 0;
+    }
+
+    // SUBMISSION: Queue a mutation; the future completes once it is applied and journaled
+    public static <T> CompletableFuture<T> submit(Supplier<T> mutation) {
+        Command<T> command = new Command<>(mutation);
+        long position = tail.get();
+        int spins = 0;
+        while (true) {
+            int slot = (int) position & mask;
+            long available = sequences.get(slot) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1))
+                    break;
+                position = tail.get();
+            } else if (available < 0) {
+                // Full: the writer has not yet taken the command a lap behind
+                if (++spins < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(FULL_BACKOFF_NANOS);
+                }
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+
+        int slot = (int) position & mask;
+        commands[slot] = command;
+        sequences.set(slot, position + 1);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        // Stopped meanwhile: the writer may have drained for the last time before this was published
+        if (!running) {
+            drainAfterStop();
+        }
+        return command.result;
+    }
+
+    // HELPER METHODS
+    private static void writeLoop() {
+        Command<?>[] batch = new Command<?>[commands.length];
+        while (true) {
+            int size = drain(batch);
+            if (size > 0) {
+                apply(batch, size);
+                continue;
+            }
+            if (!running)
+                return;
+
+            // Announce the park before the last look, so a producer that publishes after it unparks us
+            writerParked = true;
+            if (isEmpty() && running) {
+                LockSupport.park(CommandPipeline.class);
+            }
+            writerParked = false;
+        }
+    }
+
+    // Waits for stop() to finish, after which this thread is the only consumer
+    private static synchronized void drainAfterStop() {
+        if (!running) {
+            drainInline();
+        }
+    }
+
+    // With the writer gone, apply the leftovers on this thread; StateLock.write runs them directly
+    private static void drainInline() {
+        Command<?>[] batch = new Command<?>[commands.length];
+        int size;
+        while ((size = drain(batch)) > 0) {
+            apply(batch, size);
+        }
+    }
+
+    private static int drain(Command<?>[] batch) {
+        int size = 0;
+        long position = head;
+        while (size < batch.length) {
+            int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1)
+                break;
+            batch[size++] = commands[slot];
+            commands[slot] = null;
+            sequences.set(slot, position + commands.length);
+            position++;
+        }
+        head = position;
+        return size;
+    }
+
+    private static boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    // One write lock and one journal wait for the whole batch; a failing command fails only its own future
+    private static void apply(Command<?>[] batch, int size) {
+        RuntimeException batchFailure = null;
+        try {
+            StateLock.write(() -> {
+                for (int i = 0; i < size; i++) {
+                    batch[i].run();
+                }
+            });
+        } catch (RuntimeException e) {
+            batchFailure = e;
+        }
+
+        for (int i = 0; i < size; i++) {
+            batch[i].complete(batchFailure);
+            batch[i] = null;
+        }
+    }
+
+    // INNER CLASSES
+    private static final class Command<T> {
+        private final Supplier<T> mutation;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private Throwable failure;
+
+        Command(Supplier<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        void run() {
+            try {
+                value = mutation.get();
+            } catch (Throwable t) {
+                failure = t;
+            }
+        }
+
+        // Completed only after the batch is durable, or with the journal failure if it is not
+        void complete(RuntimeException batchFailure) {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else if (batchFailure != null) {
+                result.completeExceptionally(batchFailure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package backend.models;
+
+import java.util.*;
+
+// Everything the dashboard shows, built in one pass under the StateLock read
+// lock so the parts agree with each other. Replaces five separate requests
+// (tables, pending orders, pending counts, daily report, waiters): the daily
+// report is generated once instead of per request, and the pending counts are
+// the maintained patron counters, the same numbers the pending-counts endpoint
+// returns.
+public class Dashboard {
+
+    // DASHBOARD DATA: Consistent view of the floor and the day so far
+    public static Map<String, Object> snapshot() {
+        return StateLock.read(Dashboard::build);
+    }
+
+    // Same as snapshot(), for callers already holding the StateLock
+    static Map<String, Object> build() {
+        List<Map<String, Object>> pendingOrders = new ArrayList<>();
+        for (Order order : OrderRegistry.openOrders()) {
+            pendingOrders.add(Order.pendingOrderDetails(order));
+        }
+
+        Map<String, Object> dashboard = new HashMap<>();
+        dashboard.put("tables", TableManager.getAllTablesWithDetails());
+        dashboard.put("pendingOrders", pendingOrders);
+        dashboard.put("pendingCounts", Patron.getPendingOrderCounts());
+        dashboard.put("waiters", Waiter.getWaitersDetailed());
+        dashboard.put("dailyReport", Reports.buildCompleteDailyReport(Reports.generateDailyReport()));
+        dashboard.put("totals", ReportAggregator.getDayTotals());
+        return dashboard;
+    }
+}
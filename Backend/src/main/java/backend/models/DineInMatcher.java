@@ -0,0 +1,125 @@
+package backend.models;
+
+import java.util.ArrayDeque;
+
+// Seats waiting dine-in parties as waiters and tables come free, without
+// walking the dine-in queue.
+//
+// Unseated parties wait in one FIFO bucket per table size class (the smallest
+// table in TableManager.TABLE_SIZES that fits them), in their order of joining
+// the queue. A table that fits the head of a bucket fits everyone in
+// it, so the earliest party that can be seated is the earliest of at most four
+// bucket heads whose class still has a free table. Parties bigger than the
+// largest table never enter a bucket. Parties without a waiter wait in a
+// separate FIFO in queue order.
+//
+// This reproduces the pass over the whole queue it replaces. That pass gave
+// each unseated party without a waiter, in queue order, the next free dine-in
+// waiter, and sat each unseated party at the smallest free table that fits,
+// which amounts to seating the earliest seatable party until none is left.
+// Parties that leave the queue or get seated are dropped lazily at the heads.
+//
+// Guarded by the StateLock write lock like the rest of the floor.
+final class DineInMatcher {
+
+    private static final ArrayDeque<Patron>[] tableBuckets = newBuckets();
+    private static final ArrayDeque<Patron> waitingForWaiter = new ArrayDeque<>();
+
+    private DineInMatcher() {
+    }
+
+    // QUEUEING: Called for every patron joining the dine-in queue, in queue order
+    static void enqueue(Patron patron) {
+        if (patron.getTableId() != 0)
+            return;
+
+        if (patron.getWaiter() == null) {
+            waitingForWaiter.add(patron);
+        }
+        int sizeClass = TableManager.sizeClassOf(patron.getGroupSize());
+        if (sizeClass >= 0) {
+            tableBuckets[sizeClass].add(patron);
+        }
+    }
+
+    // MATCHING: Hand out free waiter slots, then free tables, to the earliest parties they suit
+    static void match() {
+        assignWaiters();
+        seatParties();
+    }
+
+    // SNAPSHOT SUPPORT: Rebuild the buckets from a restored dine-in queue
+    static void rebuild(Patron first) {
+        clear();
+        for (Patron patron = first; patron != null; patron = patron.next) {
+            enqueue(patron);
+        }
+    }
+
+    static void clear() {
+        for (ArrayDeque<Patron> bucket : tableBuckets) {
+            bucket.clear();
+        }
+        waitingForWaiter.clear();
+    }
+
+    // HELPER METHODS
+    private static void assignWaiters() {
+        while (true) {
+            Patron next = waitingForWaiter.peek();
+            if (next == null)
+                return;
+            if (!next.isQueued() || next.getTableId() != 0 || next.getWaiter() != null) {
+                waitingForWaiter.poll();
+                continue;
+            }
+
+            Waiter waiter = Waiter.findFreeWaiterForDineIn();
+            if (waiter == null)
+                return;
+            next.setWaiter(waiter);
+            waitingForWaiter.poll();
+        }
+    }
+
+    private static void seatParties() {
+        while (true) {
+            int bestClass = -1;
+            Patron best = null;
+            for (int sizeClass = 0; sizeClass < tableBuckets.length; sizeClass++) {
+                Patron head = head(tableBuckets[sizeClass]);
+                if (head != null && (best == null || head.getQueuePosition() < best.getQueuePosition())
+                        && TableManager.hasAvailableTableForGroup(TableManager.TABLE_SIZES[sizeClass])) {
+                    best = head;
+                    bestClass = sizeClass;
+                }
+            }
+            if (best == null)
+                return;
+
+            TableManager.Table table = TableManager.findTable(best.getGroupSize());
+            table.assignToPatron(best);
+            best.setTableId(table.getNumber());
+            tableBuckets[bestClass].poll();
+        }
+    }
+
+    // First party in the bucket still waiting for a table
+    private static Patron head(ArrayDeque<Patron> bucket) {
+        Patron head = bucket.peek();
+        while (head != null && (!head.isQueued() || head.getTableId() != 0)) {
+            bucket.poll();
+            head = bucket.peek();
+        }
+        return head;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<Patron>[] newBuckets() {
+        ArrayDeque<Patron>[] buckets = new ArrayDeque[TableManager.TABLE_SIZES.length];
+        for (int sizeClass = 0; sizeClass < buckets.length; sizeClass++) {
+            buckets[sizeClass] = new ArrayDeque<>();
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,141 @@
+package backend.models;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Change events for the live dashboard. Mutations mark the tables and orders
+// they touch; when the outermost StateLock write finishes, the marks are
+// turned into events and the queue counts, waiter loads and day totals are
+// compared with what was last published, so only values that actually moved
+// go out. Batches are handed to listeners while the write lock is still held,
+// which keeps them in the same order the model applied the changes. With no
+// listener registered (no stream open), commit only drops the marks.
+//
+// Everything here is guarded by the StateLock write lock.
+public final class FloorEvents {
+
+    public static final String SYNC = "sync";
+    public static final String TABLE = "table";
+    public static final String ORDER_CREATED = "order-created";
+    public static final String ORDER_UPDATED = "order-updated";
+    public static final String ORDER_PAID = "order-paid";
+    public static final String QUEUES = "queues";
+    public static final String WAITER = "waiter";
+    public static final String TOTALS = "totals";
+
+    private static final List<Consumer<List<Event>>> listeners = new CopyOnWriteArrayList<>();
+
+    // Tables and orders touched by the current write, orders mapped to whether they are new
+    private static final Set<TableManager.Table> dirtyTables = new LinkedHashSet<>();
+    private static final Map<Order, Boolean> dirtyOrders = new LinkedHashMap<>();
+
+    // Last published values, null until the first batch after a listener subscribes
+    private static Map<String, Integer> lastQueues;
+    private static Map<String, Object> lastTotals;
+    private static final Map<String, Map<String, Object>> lastWaiters = new HashMap<>();
+
+    private FloorEvents() {
+    }
+
+    public static void addListener(Consumer<List<Event>> listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Consumer<List<Event>> listener) {
+        listeners.remove(listener);
+    }
+
+    // MUTATION HOOKS: Called from inside a StateLock write
+    static void tableChanged(TableManager.Table table) {
+        dirtyTables.add(table);
+    }
+
+    static void orderCreated(Order order) {
+        dirtyOrders.put(order, true);
+    }
+
+    static void orderChanged(Order order) {
+        dirtyOrders.putIfAbsent(order, false);
+    }
+
+    // PUBLISHING: Called by StateLock at the end of the outermost write, before the lock is released
+    static void commit() {
+        if (listeners.isEmpty()) {
+            dirtyTables.clear();
+            dirtyOrders.clear();
+            lastQueues = null;
+            lastTotals = null;
+            lastWaiters.clear();
+            return;
+        }
+
+        List<Event> batch = new ArrayList<>();
+        for (TableManager.Table table : dirtyTables) {
+            batch.add(new Event(TABLE, TableManager.tableDetails(table)));
+        }
+        dirtyTables.clear();
+
+        for (Map.Entry<Order, Boolean> entry : dirtyOrders.entrySet()) {
+            Order order = entry.getKey();
+            if (order.isPaid()) {
+                batch.add(new Event(ORDER_PAID, Map.of("orderId", order.getOrderId())));
+            } else {
+                batch.add(new Event(entry.getValue() ? ORDER_CREATED : ORDER_UPDATED, Order.pendingOrderDetails(order)));
+            }
+        }
+        dirtyOrders.clear();
+
+        // From the maintained patron counters, so this costs nothing per open order
+        Map<String, Integer> queues = Patron.getPendingOrderCounts();
+        if (!queues.equals(lastQueues)) {
+            lastQueues = queues;
+            batch.add(new Event(QUEUES, queues));
+        }
+
+        Map<String, Object> totals = ReportAggregator.getDayTotals();
+        if (!totals.equals(lastTotals)) {
+            lastTotals = totals;
+            batch.add(new Event(TOTALS, totals));
+        }
+
+        for (Map<String, Object> waiter : Waiter.getWaitersDetailed()) {
+            String staffId = (String) waiter.get("staffId");
+            if (!waiter.equals(lastWaiters.get(staffId))) {
+                lastWaiters.put(staffId, waiter);
+                batch.add(new Event(WAITER, waiter));
+            }
+        }
+
+        if (batch.isEmpty())
+            return;
+        List<Event> published = Collections.unmodifiableList(batch);
+        for (Consumer<List<Event>> listener : listeners) {
+            listener.accept(published);
+        }
+    }
+
+    // SYNC: Full dashboard state for a new subscriber, the caller holds the StateLock
+    public static Map<String, Object> currentState() {
+        return Dashboard.build();
+    }
+
+    // INNER CLASSES
+    public static class Event {
+        private final String type;
+        private final Object data;
+
+        public Event(String type, Object data) {
+            this.type = type;
+            this.data = data;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Object getData() {
+            return data;
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package backend.models;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+// Append-only write-ahead journal of floor-state mutations.
+//
+// Request threads append records while holding the StateLock write lock and
+// then wait (outside the lock) until a single flusher thread has written and
+// fsynced them. Everything appended while the flusher is busy goes out in the
+// next batch, so one fsync covers many requests (group commit).
+//
+// The journal is a directory of segment files named journal-<first seq>.log.
+// A new segment is started on every open and whenever a snapshot is taken, so
+// segments wholly covered by a snapshot can simply be deleted.
+//
+// A failed write or fsync is not retried: after a failed fsync the kernel may
+// already have dropped the dirty pages, so whether the records reached disk is
+// unknown. The journal stops writing instead, and every later mutation is
+// refused before it touches the model (StateLock.write calls checkWritable)
+// until the process restarts and replays what did reach disk.
+//
+// Frame layout (big-endian): int payloadLength, int crc32(seq + payload), long seq, payload
+// Payload: byte type followed by the type's fields.
+public class Journal {
+    private static final Logger LOG = Logger.getLogger(Journal.class.getName());
+
+    static final byte PATRON_CREATED = 1;
+    static final byte ORDER_CREATED = 2;
+    static final byte ITEMS_ADDED = 3;
+    static final byte ORDER_PAID = 4;
+    static final byte DAY_CLOSED = 5;
+
+    private static final int FRAME_HEADER_BYTES = 16;
+    private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    private static final ReentrantLock lock = new ReentrantLock();
+    private static final Condition workAvailable = lock.newCondition();
+    private static final Condition batchFlushed = lock.newCondition();
+
+    private static volatile boolean enabled = false;
+    private static volatile boolean replaying = false;
+    private static boolean closing = false;
+    private static Path directory;
+    private static FileChannel channel;
+    private static Thread flusher;
+
+    // Guarded by lock
+    private static ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private static long appendedSeq = 0;
+    private static long durableSeq = 0;
+    // Set once by the flusher (under lock); volatile so writers can be refused without taking it
+    private static volatile IOException failure;
+
+    // Highest sequence this thread appended and has not yet waited for
+    private static final ThreadLocal<long[]> unflushedSeq = ThreadLocal.withInitial(() -> new long[1]);
+
+    // STARTUP: Replay records after the snapshot sequence into the model, then start a new segment
+    public static synchronized int open(Path journalDirectory, long snapshotSeq) throws IOException {
+        Files.createDirectories(journalDirectory);
+        directory = journalDirectory;
+        appendedSeq = snapshotSeq;
+        durableSeq = snapshotSeq;
+        failure = null;
+
+        int replayed = 0;
+        for (Path segment : listSegments()) {
+            replayed += replay(segment, snapshotSeq);
+        }
+        channel = openSegment(appendedSeq + 1);
+
+        flusher = new Thread(Journal::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        enabled = true;
+        return replayed;
+    }
+
+    // SHUTDOWN: Flush what has been appended, stop the flusher and close the segment
+    public static synchronized void close() throws IOException {
+        if (!enabled)
+            return;
+
+        // Under the read lock no mutation is between its change and its record
+        StateLock.read(() -> {
+            enabled = false;
+            return null;
+        });
+        lock.lock();
+        try {
+            closing = true;
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            closing = false;
+            flusher = null;
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static boolean isReplaying() {
+        return replaying;
+    }
+
+    // RECORDING: One method per journaled mutation, called under the StateLock write lock
+    public static void recordPatronCreated(int serviceType, Integer groupSize) {
+        if (!shouldRecord())
+            return;
+        append(out -> {
+            out.writeByte(PATRON_CREATED);
+            out.writeInt(serviceType);
+            out.writeInt(groupSize != null ? groupSize : -1);
+        });
+    }
+
+    public static void recordOrderCreated(int patronId, List<Order.OrderItemRequest> items, long createdAt) {
+        if (!shouldRecord())
+            return;
+        append(out -> {
+            out.writeByte(ORDER_CREATED);
+            out.writeInt(patronId);
+            out.writeLong(createdAt);
+            writeItems(out, items);
+        });
+    }
+
+    public static void recordItemsAdded(int orderId, List<Order.OrderItemRequest> items) {
+        if (!shouldRecord())
+            return;
+        append(out -> {
+            out.writeByte(ITEMS_ADDED);
+            out.writeInt(orderId);
+            writeItems(out, items);
+        });
+    }
+
+    public static void recordOrderPaid(int orderId, long paidAt) {
+        if (!shouldRecord())
+            return;
+        append(out -> {
+            out.writeByte(ORDER_PAID);
+            out.writeInt(orderId);
+            out.writeLong(paidAt);
+        });
+    }
+
+    public static void recordDayClosed(LocalDate businessDay) {
+        if (!shouldRecord())
+            return;
+        append(out -> {
+            out.writeByte(DAY_CLOSED);
+            out.writeLong(businessDay.toEpochDay());
+        });
+    }
+
+    // WRITE ADMISSION: Refuse a mutation up front once the journal can no longer make it durable
+    static void checkWritable() {
+        IOException failed = failure;
+        if (failed != null && shouldRecord()) {
+            throw new IllegalStateException("Journal write failed, refusing changes until restart: "
+                    + failed.getMessage(), failed);
+        }
+    }
+
+    // SNAPSHOT SUPPORT: Flush everything appended so far and start a new segment.
+    // The caller holds the StateLock read lock, so no records can be appended meanwhile.
+    // Returns the last sequence covered by the closed segments.
+    public static long rotate() throws IOException {
+        lock.lock();
+        try {
+            if (!enabled)
+                return appendedSeq;
+
+            while (durableSeq < appendedSeq && failure == null) {
+                batchFlushed.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw new IOException("Journal is failed, cannot rotate", failure);
+            }
+
+            // The flusher only touches the channel while a batch is pending, and none is
+            FileChannel previous = channel;
+            channel = openSegment(appendedSeq + 1);
+            previous.close();
+            return appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // SNAPSHOT SUPPORT: Delete segments whose records are all at or below the sequence
+    public static synchronized void deleteSegmentsThrough(long seq) throws IOException {
+        if (directory == null)
+            return;
+
+        List<Path> segments = listSegments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (segmentStart(segments.get(i + 1)) <= seq + 1) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    // DURABILITY: Block until everything this thread appended is on disk
+    public static void awaitDurable() {
+        long[] seq = unflushedSeq.get();
+        if (seq[0] == 0)
+            return;
+
+        lock.lock();
+        try {
+            while (durableSeq < seq[0] && failure == null) {
+                batchFlushed.awaitUninterruptibly();
+            }
+            if (durableSeq < seq[0]) {
+                throw new IllegalStateException("Journal write failed: " + failure.getMessage(), failure);
+            }
+        } finally {
+            lock.unlock();
+            seq[0] = 0;
+        }
+    }
+
+    // HELPER METHODS
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static boolean shouldRecord() {
+        return enabled && !replaying;
+    }
+
+    private static void append(RecordWriter writer) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        try {
+            writer.write(new DataOutputStream(payload));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] body = payload.toByteArray();
+
+        lock.lock();
+        try {
+            // Only reachable if the flush failed while this mutation was running
+            if (failure != null) {
+                throw new IllegalStateException("Journal write failed: " + failure.getMessage(), failure);
+            }
+            long seq = ++appendedSeq;
+
+            CRC32 crc = new CRC32();
+            ByteBuffer seqBytes = ByteBuffer.allocate(8).putLong(0, seq);
+            crc.update(seqBytes);
+            crc.update(body);
+
+            ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+            header.putInt(body.length).putInt((int) crc.getValue()).putLong(seq);
+            pending.write(header.array(), 0, FRAME_HEADER_BYTES);
+            pending.write(body, 0, body.length);
+
+            unflushedSeq.get()[0] = seq;
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void flushLoop() {
+        ByteArrayOutputStream spare = new ByteArrayOutputStream(64 * 1024);
+        while (true) {
+            ByteArrayOutputStream batch;
+            long batchSeq;
+
+            lock.lock();
+            try {
+                while (pending.size() == 0) {
+                    if (closing)
+                        return;
+                    workAvailable.awaitUninterruptibly();
+                }
+                batch = pending;
+                pending = spare;
+                batchSeq = appendedSeq;
+            } finally {
+                lock.unlock();
+            }
+
+            // Once failed, nothing more is written, so the journal never skips over a lost batch
+            IOException error = failure;
+            if (error == null) {
+                try {
+                    ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                } catch (IOException e) {
+                    LOG.log(Level.SEVERE, "Journal flush failed, refusing further changes", e);
+                    error = e;
+                }
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durableSeq = batchSeq;
+                }
+                batchFlushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            batch.reset();
+            spare = batch;
+        }
+    }
+
+    private static void writeItems(DataOutputStream out, List<Order.OrderItemRequest> items) throws IOException {
+        out.writeShort(items.size());
+        for (Order.OrderItemRequest item : items) {
+            byte[] name = item.getName().getBytes(StandardCharsets.UTF_8);
+            out.writeShort(name.length);
+            out.write(name);
+            out.writeInt(item.getQuantity());
+        }
+    }
+
+    private static List<Order.OrderItemRequest> readItems(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        List<Order.OrderItemRequest> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[in.readUnsignedShort()];
+            in.readFully(name);
+            Order.OrderItemRequest item = new Order.OrderItemRequest();
+            item.setName(new String(name, StandardCharsets.UTF_8));
+            item.setQuantity(in.readInt());
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static FileChannel openSegment(long firstSeq) throws IOException {
+        Path segment = directory.resolve(String.format("journal-%020d.log", firstSeq));
+        FileChannel opened = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        opened.position(opened.size());
+        return opened;
+    }
+
+    // Segments sorted by their first sequence number
+    private static List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "journal-*.log")) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        segments.sort(Comparator.comparingLong(Journal::segmentStart));
+        return segments;
+    }
+
+    private static long segmentStart(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+    }
+
+    // REPLAY: Re-apply every intact record after the snapshot in order, truncating a torn tail
+    private static int replay(Path journalFile, long snapshotSeq) throws IOException {
+        int replayed = 0;
+        long goodLength = 0;
+        replaying = true;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(journalFile), 64 * 1024))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+                    LOG.warning("Journal ends with a torn record, truncating");
+                    break;
+                }
+
+                byte[] body;
+                int storedCrc;
+                long seq;
+                try {
+                    storedCrc = in.readInt();
+                    seq = in.readLong();
+                    body = new byte[length];
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    LOG.warning("Journal ends with a torn record, truncating");
+                    break;
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(ByteBuffer.allocate(8).putLong(0, seq));
+                crc.update(body);
+                if ((int) crc.getValue() != storedCrc) {
+                    LOG.warning("Journal record " + seq + " failed its checksum, truncating");
+                    break;
+                }
+
+                goodLength += FRAME_HEADER_BYTES + length;
+                if (seq <= snapshotSeq)
+                    continue;
+                if (seq != appendedSeq + 1) {
+                    LOG.warning("Journal skips from record " + appendedSeq + " to " + seq);
+                }
+
+                apply(new DataInputStream(new ByteArrayInputStream(body)));
+                appendedSeq = seq;
+                durableSeq = seq;
+                replayed++;
+            }
+        } finally {
+            replaying = false;
+        }
+
+        try (FileChannel ch = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            if (ch.size() > goodLength) {
+                ch.truncate(goodLength);
+            }
+        }
+        return replayed;
+    }
+
+    private static void apply(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case PATRON_CREATED -> {
+                int serviceType = in.readInt();
+                int groupSize = in.readInt();
+                Patron.createNewPatron(serviceType, groupSize >= 0 ? groupSize : null);
+            }
+            case ORDER_CREATED -> {
+                int patronId = in.readInt();
+                long createdAt = in.readLong();
+                Order.createOrder(patronId, readItems(in), createdAt);
+            }
+            case ITEMS_ADDED -> {
+                int orderId = in.readInt();
+                Order.addItemsToOrder(orderId, readItems(in));
+            }
+            case ORDER_PAID -> {
+                int orderId = in.readInt();
+                Order.markOrderAsPaid(orderId, in.readLong());
+            }
+            case DAY_CLOSED -> OrderArchive.rollover(LocalDate.ofEpochDay(in.readLong()));
+            default -> throw new IOException("Unknown journal record type " + type);
+        }
+    }
+}
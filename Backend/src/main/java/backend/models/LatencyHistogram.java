@@ -0,0 +1,91 @@
+package backend.models;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency histogram in nanoseconds with log-linear buckets.
+//
+// Values below 8 get a bucket each; above that every power of two is split
+// into 8 equal sub-buckets, so a bucket is never wider than 1/8 of its lower
+// bound and percentiles are accurate to within 12.5%. Recording is one
+// atomic increment on a fixed array plus two striped adders, with no
+// allocation and no lock, so it is cheap enough for the model hot paths.
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    // RECORDING
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sumNanos.add(value);
+    }
+
+    // Record the time elapsed since a System.nanoTime() start
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    // PERCENTILES: Upper bound of the bucket holding each quantile (0 < q <= 1), 0 when empty.
+    // Buckets are read one by one while recording continues, which is fine for monitoring.
+    public long[] percentiles(double... quantiles) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            total += snapshot[bucket];
+        }
+
+        long[] values = new long[quantiles.length];
+        if (total == 0)
+            return values;
+
+        for (int i = 0; i < quantiles.length; i++) {
+            long rank = Math.max(1, (long) Math.ceil(quantiles[i] * total));
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += snapshot[bucket];
+                if (seen >= rank) {
+                    values[i] = upperBound(bucket);
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    // HELPER METHODS
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,87 @@
+package backend.models;
+
+import java.util.*;
+
+public class MenuCatalog {
+
+    private static final MenuCatalog current = new MenuCatalog(Order.MENU);
+
+    private final List<Order.MenuItem> items;
+    private final Map<String, Order.MenuItem> itemsByExactName;
+    private final Map<String, Order.MenuItem> itemsByName;
+    private final Map<String, List<Order.MenuItem>> itemsByCategory;
+    private final List<String> categories;
+
+    // CONSTRUCTOR: Build all indexes once, item ordinals follow list position. The
+    // ordinal is stored on the item itself, so an item can belong to one catalog only
+    public MenuCatalog(List<Order.MenuItem> menuItems) {
+        this.items = List.copyOf(menuItems);
+        this.itemsByExactName = new HashMap<>(items.size() * 2);
+        this.itemsByName = new HashMap<>(items.size() * 2);
+        Map<String, List<Order.MenuItem>> byCategory = new LinkedHashMap<>();
+        List<String> categoryNames = new ArrayList<>();
+
+        for (int ordinal = 0; ordinal < items.size(); ordinal++) {
+            Order.MenuItem item = items.get(ordinal);
+            if (item.getOrdinal() >= 0) {
+                throw new IllegalArgumentException("Menu item already belongs to a catalog: " + item.getName());
+            }
+            item.setOrdinal(ordinal);
+            itemsByExactName.putIfAbsent(item.getName(), item);
+            itemsByName.putIfAbsent(fold(item.getName()), item);
+            byCategory.computeIfAbsent(fold(item.getCategory()), k -> {
+                categoryNames.add(item.getCategory());
+                return new ArrayList<>();
+            }).add(item);
+        }
+
+        for (Map.Entry<String, List<Order.MenuItem>> entry : byCategory.entrySet()) {
+            entry.setValue(List.copyOf(entry.getValue()));
+        }
+        this.itemsByCategory = byCategory;
+        this.categories = List.copyOf(categoryNames);
+    }
+
+    // CATALOG SELECTION: Active catalog used by orders and menu endpoints
+    public static MenuCatalog current() {
+        return current;
+    }
+
+    // LOOKUP: Case-insensitive lookup by item name, exact spelling skips the case fold
+    public Order.MenuItem findByName(String name) {
+        if (name == null)
+            return null;
+        Order.MenuItem item = itemsByExactName.get(name);
+        return item != null ? item : itemsByName.get(fold(name));
+    }
+
+    // LOOKUP: Item by its dense ordinal
+    public Order.MenuItem getByOrdinal(int ordinal) {
+        return items.get(ordinal);
+    }
+
+    // LOOKUP: Case-insensitive lookup by category
+    public List<Order.MenuItem> getByCategory(String category) {
+        if (category == null)
+            return List.of();
+        return itemsByCategory.getOrDefault(fold(category), List.of());
+    }
+
+    public List<Order.MenuItem> getItems() {
+        return items;
+    }
+
+    // Category names as first spelled in the menu, in menu order
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    // HELPER METHODS
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
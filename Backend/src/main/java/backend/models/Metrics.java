@@ -0,0 +1,145 @@
+package backend.models;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Built-in metrics, rendered in the Prometheus text exposition format.
+//
+// Latencies go into LatencyHistograms and are published as summaries with
+// p50, p99 and p999 quantiles. Counters are LongAdders. Floor gauges (queue
+// lengths, table occupancy, open orders) are read from the model at scrape
+// time under the read lock, so recording never touches the model.
+public final class Metrics {
+
+    private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+    private static final String[] QUANTILE_LABELS = { "0.5", "0.99", "0.999" };
+
+    // MODEL OPERATIONS: Timed on the hot paths
+    public static final LatencyHistogram CREATE_ORDER = new LatencyHistogram();
+    public static final LatencyHistogram MARK_PAID = new LatencyHistogram();
+    public static final LatencyHistogram DINE_IN_QUEUE = new LatencyHistogram();
+    public static final LatencyHistogram TABLE_LOOKUP = new LatencyHistogram();
+    public static final LatencyHistogram WRITE_LOCK_WAIT = new LatencyHistogram();
+    public static final LatencyHistogram JOURNAL_WAIT = new LatencyHistogram();
+    public static final LatencyHistogram PIPELINE_WAIT = new LatencyHistogram();
+
+    // COUNTERS: Live traffic only, journal replay does not count
+    public static final LongAdder PATRONS_CREATED = new LongAdder();
+    public static final LongAdder ORDERS_CREATED = new LongAdder();
+    public static final LongAdder PAYMENTS = new LongAdder();
+    public static final LongAdder REVENUE_CENTS = new LongAdder();
+
+    // Request latency by "METHOD route", sorted so the output is stable between scrapes
+    private static final Map<String, LatencyHistogram> requests = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongAdder> serverErrors = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    // HTTP: Histogram for a route template such as /api/orders/{orderId}
+    public static LatencyHistogram request(String method, String route) {
+        return requests.computeIfAbsent(method + " " + route, k -> new LatencyHistogram());
+    }
+
+    public static void serverError(String method, String route) {
+        serverErrors.computeIfAbsent(method + " " + route, k -> new LongAdder()).increment();
+    }
+
+    // EXPOSITION: Everything recorded here plus the floor gauges
+    public static void writePrometheus(StringBuilder out) {
+        writeType(out, "pos_http_request_duration_seconds", "summary", "HTTP request latency by route");
+        for (Map.Entry<String, LatencyHistogram> entry : requests.entrySet()) {
+            writeSummary(out, "pos_http_request_duration_seconds", requestLabels(entry.getKey()), entry.getValue());
+        }
+
+        writeType(out, "pos_http_server_errors_total", "counter", "HTTP responses with a 5xx status by route");
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(serverErrors).entrySet()) {
+            writeSample(out, "pos_http_server_errors_total", requestLabels(entry.getKey()), entry.getValue().sum());
+        }
+
+        writeType(out, "pos_operation_duration_seconds", "summary", "Latency of model operations");
+        writeSummary(out, "pos_operation_duration_seconds", "operation=\"create_order\"", CREATE_ORDER);
+        writeSummary(out, "pos_operation_duration_seconds", "operation=\"mark_paid\"", MARK_PAID);
+        writeSummary(out, "pos_operation_duration_seconds", "operation=\"dine_in_queue\"", DINE_IN_QUEUE);
+        writeSummary(out, "pos_operation_duration_seconds", "operation=\"table_lookup\"", TABLE_LOOKUP);
+        writeSummary(out, "pos_operation_duration_seconds", "operation=\"write_lock_wait\"", WRITE_LOCK_WAIT);
+        writeSummary(out, "pos_operation_duration_seconds", "operation=\"journal_wait\"", JOURNAL_WAIT);
+        writeSummary(out, "pos_operation_duration_seconds", "operation=\"pipeline_wait\"", PIPELINE_WAIT);
+
+        writeCounter(out, "pos_patrons_created_total", "Patrons added", PATRONS_CREATED.sum());
+        writeCounter(out, "pos_orders_created_total", "Orders created", ORDERS_CREATED.sum());
+        writeCounter(out, "pos_payments_total", "Orders paid", PAYMENTS.sum());
+        writeCounter(out, "pos_revenue_cents_total", "Revenue from paid orders in cents", REVENUE_CENTS.sum());
+        writeGauge(out, "pos_write_pipeline_depth", "Mutations queued for the single writer", CommandPipeline.depth());
+
+        StateLock.read(() -> {
+            Map<String, Integer> queues = Patron.getQueueCounts();
+            writeType(out, "pos_queue_length", "gauge", "Patrons waiting to order");
+            writeSample(out, "pos_queue_length", "queue=\"dine_in\"", queues.get("dineInQueue"));
+            writeSample(out, "pos_queue_length", "queue=\"takeout\"", queues.get("takeoutQueue"));
+
+            Map<String, Object> tables = TableManager.getTableStatus();
+            writeType(out, "pos_tables", "gauge", "Tables by occupancy");
+            writeSample(out, "pos_tables", "state=\"occupied\"", (Integer) tables.get("occupiedTables"));
+            writeSample(out, "pos_tables", "state=\"available\"", (Integer) tables.get("availableTables"));
+
+            writeGauge(out, "pos_open_orders", "Orders not yet paid", OrderRegistry.openCount());
+            return null;
+        });
+    }
+
+    // EXPOSITION HELPERS: Also used by the controller for its own gauges
+    public static void writeGauge(StringBuilder out, String name, String help, long value) {
+        writeType(out, name, "gauge", help);
+        writeSample(out, name, null, value);
+    }
+
+    public static void writeCounter(StringBuilder out, String name, String help, long value) {
+        writeType(out, name, "counter", help);
+        writeSample(out, name, null, value);
+    }
+
+    // One counter split by a single label, such as reason="expired"
+    public static void writeCounter(StringBuilder out, String name, String help, String label,
+            Map<String, Long> values) {
+        writeType(out, name, "counter", help);
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            writeSample(out, name, label + "=\"" + escape(entry.getKey()) + "\"", entry.getValue());
+        }
+    }
+
+    // HELPER METHODS
+    private static void writeType(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeSummary(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long[] values = histogram.percentiles(QUANTILES);
+        for (int i = 0; i < QUANTILES.length; i++) {
+            out.append(name).append('{').append(labels).append(",quantile=\"").append(QUANTILE_LABELS[i])
+                    .append("\"} ").append(values[i] / 1e9).append('\n');
+        }
+        out.append(name).append("_sum{").append(labels).append("} ").append(histogram.getSumNanos() / 1e9).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String requestLabels(String key) {
+        int space = key.indexOf(' ');
+        return "method=\"" + key.substring(0, space) + "\",route=\"" + escape(key.substring(space + 1)) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
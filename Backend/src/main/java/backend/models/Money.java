@@ -0,0 +1,34 @@
+package backend.models;
+
+// Money is carried as a long number of cents everywhere in the model.
+// Rands (double) only appear at the edges: menu definitions and API responses.
+public final class Money {
+
+    private Money() {
+    }
+
+    // CONVERSION: Menu prices are written in rands, convert once at load time
+    public static long fromRands(double rands) {
+        return Math.round(rands * 100.0);
+    }
+
+    // CONVERSION: Exact cents to a rand value for JSON responses
+    public static double toRands(long cents) {
+        return cents / 100.0;
+    }
+
+    // ARITHMETIC: Percentage of an amount, rounded half up to the cent
+    public static long percentOf(long cents, int percent) {
+        return (cents * percent + 50) / 100;
+    }
+
+    // ARITHMETIC: Average of a cent total over a count, rounded half up to the cent
+    public static long average(long cents, long count) {
+        return count > 0 ? (cents + count / 2) / count : 0;
+    }
+
+    // ARITHMETIC: part / whole as a percentage with two decimals, e.g. 66.67
+    public static double percentage(long part, long whole) {
+        return whole > 0 ? ((part * 10000 + whole / 2) / whole) / 100.0 : 0;
+    }
+}
@@ -3,22 +3,17 @@ package backend.models;
 import java.util.*;
 
 public class Order {
-    private static int orderIdCounter = 1;
-    private static int itemIdCounter = 1;
-    public static Order firstOrder = null;
-    public static Order lastOrder = null;
-    public Order nextOrder;
-
-    private static Map<Integer, Order> allOrders = new HashMap<>();
-    private static List<Order> ordersList = new ArrayList<>();
-
     private int orderId;
     private int patronId;
     private String waiterId;
     private int tableNumber;
-    private List<OrderItem> items;
-    private double total;
+    private OrderLines lines;
+    private long totalCents;
+    private int totalItems;
     private boolean paid;
+    private int serviceType;
+    private long createdAt;
+    private long paidAt;
 
     // All available food and drink
     public static final List<MenuItem> MENU = Arrays.asList(
@@ -42,66 +37,60 @@ public class Order {
 
     // MENU MANAGEMENT METHODS
     public static List<Map<String, Object>> getAllMenuItems() {
-        List<Map<String, Object>> menuData = new ArrayList<>();
-        for (MenuItem item : MENU) {
-            Map<String, Object> itemMap = new HashMap<>();
-            itemMap.put("name", item.getName());
-            itemMap.put("price", item.getPrice());
-            itemMap.put("category", item.getCategory());
-            menuData.add(itemMap);
-        }
-        return menuData;
+        return buildMenuData(MenuCatalog.current().getItems(), false);
     }
 
     public static List<Map<String, Object>> getMenuItemsWithDescriptions() {
-        List<Map<String, Object>> menuData = new ArrayList<>();
-        for (MenuItem item : MENU) {
+        return buildMenuData(MenuCatalog.current().getItems(), true);
+    }
+
+    public static List<Map<String, Object>> getMenuItemsByCategory(String category) {
+        return buildMenuData(MenuCatalog.current().getByCategory(category), true);
+    }
+
+    // Menu view data for a fixed list of items, shared with the menu response cache
+    public static List<Map<String, Object>> buildMenuData(List<MenuItem> items, boolean withDescriptions) {
+        List<Map<String, Object>> menuData = new ArrayList<>(items.size());
+        for (MenuItem item : items) {
             Map<String, Object> itemMap = new HashMap<>();
             itemMap.put("name", item.getName());
             itemMap.put("price", item.getPrice());
             itemMap.put("category", item.getCategory());
-            itemMap.put("description", item.getDescription());
-            menuData.add(itemMap);
-        }
-        return menuData;
-    }
-
-    public static List<Map<String, Object>> getMenuItemsByCategory(String category) {
-        List<Map<String, Object>> menuData = new ArrayList<>();
-        for (MenuItem item : MENU) {
-            if (item.getCategory().equalsIgnoreCase(category)) {
-                Map<String, Object> itemMap = new HashMap<>();
-                itemMap.put("name", item.getName());
-                itemMap.put("price", item.getPrice());
-                itemMap.put("category", item.getCategory());
+            if (withDescriptions) {
                 itemMap.put("description", item.getDescription());
-                menuData.add(itemMap);
             }
+            menuData.add(itemMap);
         }
         return menuData;
     }
 
     // CONSTRUCTOR
     public Order(int patronId, String waiterId, int tableNumber) {
-        this.orderId = orderIdCounter++;
+        this.orderId = OrderRegistry.nextOrderId();
         this.patronId = patronId;
         this.waiterId = waiterId;
         this.tableNumber = tableNumber;
-        this.items = new ArrayList<>();
-        this.total = 0.0;
+        this.lines = new OrderLines(MenuCatalog.current());
+        this.totalCents = 0;
         this.paid = false;
-        this.nextOrder = null;
 
-        // Add to linked list of orders
-        if (firstOrder == null) {
-            firstOrder = this;
-        } else {
-            lastOrder.nextOrder = this;
-        }
-        lastOrder = this;
+        OrderRegistry.register(this);
+    }
 
-        allOrders.put(this.orderId, this);
-        ordersList.add(this);
+    // Rebuilds an order from a snapshot without drawing a new id or registering it
+    Order(int orderId, int patronId, String waiterId, int tableNumber, int serviceType, OrderLines lines,
+            long totalCents, int totalItems, boolean paid, long createdAt, long paidAt) {
+        this.orderId = orderId;
+        this.patronId = patronId;
+        this.waiterId = waiterId;
+        this.tableNumber = tableNumber;
+        this.serviceType = serviceType;
+        this.lines = lines;
+        this.totalCents = totalCents;
+        this.totalItems = totalItems;
+        this.paid = paid;
+        this.createdAt = createdAt;
+        this.paidAt = paidAt;
     }
 
     // GETTER METHODS
@@ -122,77 +111,131 @@ public class Order {
     }
 
     public List<OrderItem> getItems() {
-        return items;
+        return lines.toOrderItems();
+    }
+
+    public OrderLines getLines() {
+        return lines;
     }
 
     public double getTotalAmount() {
-        return total;
+        return Money.toRands(totalCents);
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public int getTotalItems() {
+        return totalItems;
     }
 
     public boolean isPaid() {
         return paid;
     }
 
+    // Service type of the patron when the order was placed (1 = dine-in, 0 = takeout)
+    public int getServiceType() {
+        return serviceType;
+    }
+
+    // Creation time in epoch millis
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    // Payment time in epoch millis, 0 while unpaid
+    public long getPaidAt() {
+        return paidAt;
+    }
+
     // SETTER METHODS
     public void setPaid(boolean paid) {
         this.paid = paid;
-        if (paid && waiterId != null) {
-            Waiter waiter = findWaiterById(waiterId);
-            if (waiter != null) {
-                Patron patron = Patron.findById(this.patronId);
-                boolean isDineIn = patron != null && patron.getServiceType() == 1;
-                waiter.addOrderItem(total, isDineIn);
-            }
-        }
     }
 
     // ORDER CREATION AND MANAGEMENT
     public static Map<String, Object> createOrder(int patronId, List<OrderItemRequest> itemRequests) {
-        Patron patron = Patron.findById(patronId);
-        if (patron == null) {
-            throw new IllegalArgumentException("Patron not found");
-        }
+        return createOrder(patronId, itemRequests, System.currentTimeMillis());
+    }
 
-        String waiterId = patron.getWaiter() != null ? patron.getWaiter().getStaffId() : null;
-        Order order = new Order(patronId, waiterId, patron.getTableId());
+    // ORDER CREATION: Creation time is passed in so journal replay reproduces it
+    public static Map<String, Object> createOrder(int patronId, List<OrderItemRequest> itemRequests, long createdAt) {
+        return StateLock.write(() -> {
+            long start = System.nanoTime();
+            Patron patron = Patron.findById(patronId);
+            if (patron == null) {
+                throw new IllegalArgumentException("Patron not found");
+            }
 
-        // Add all requested items to the order
-        for (OrderItemRequest itemReq : itemRequests) {
-            order.addItem(itemReq.getName(), itemReq.getQuantity());
-        }
+            // Validate every item first so a bad request leaves no partial order behind
+            MenuItem[] menuItems = resolveItems(MenuCatalog.current(), itemRequests);
 
-        patron.setOrder(order);
+            String waiterId = patron.getWaiter() != null ? patron.getWaiter().getStaffId() : null;
+            Order order = new Order(patronId, waiterId, patron.getTableId());
+            order.serviceType = patron.getServiceType();
+            order.createdAt = createdAt;
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("orderId", order.getOrderId());
-        result.put("totalAmount", order.getTotalAmount());
-        result.put("message", "Order created successfully");
-        return result;
+            // Add all requested items to the order
+            for (int i = 0; i < menuItems.length; i++) {
+                order.addItem(menuItems[i], itemRequests.get(i).getQuantity());
+            }
+
+            patron.setOrder(order);
+            RollingStats.recordOrderPlaced(order);
+            Journal.recordOrderCreated(patronId, itemRequests, createdAt);
+            FloorEvents.orderCreated(order);
+            if (!Journal.isReplaying()) {
+                Metrics.ORDERS_CREATED.increment();
+            }
+            Metrics.CREATE_ORDER.recordSince(start);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("orderId", order.getOrderId());
+            result.put("totalAmount", order.getTotalAmount());
+            result.put("message", "Order created successfully");
+            return result;
+        });
     }
 
     public static Map<String, Object> addItemsToOrder(int orderId, List<OrderItemRequest> newItems) {
-        Order order = findOrderById(orderId);
-        if (order == null) {
-            throw new IllegalArgumentException("Order not found");
-        }
+        return StateLock.write(() -> {
+            Order order = findOrderById(orderId);
+            if (order == null) {
+                throw new IllegalArgumentException("Order not found");
+            }
 
-        if (order.isPaid()) {
-            throw new IllegalArgumentException("Cannot add items to a paid order");
-        }
+            if (order.isPaid()) {
+                throw new IllegalArgumentException("Cannot add items to a paid order");
+            }
 
-        for (OrderItemRequest item : newItems) {
-            order.addItem(item.getName(), item.getQuantity());
-        }
+            MenuItem[] menuItems = resolveItems(order.lines.getCatalog(), newItems);
+            for (int i = 0; i < menuItems.length; i++) {
+                order.addItem(menuItems[i], newItems.get(i).getQuantity());
+            }
+            Journal.recordItemsAdded(orderId, newItems);
+            FloorEvents.orderChanged(order);
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("orderId", order.getOrderId());
-        result.put("totalAmount", order.getTotalAmount());
-        result.put("message", "Items added to order successfully");
-        return result;
+            Map<String, Object> result = new HashMap<>();
+            result.put("orderId", order.getOrderId());
+            result.put("totalAmount", order.getTotalAmount());
+            result.put("message", "Items added to order successfully");
+            return result;
+        });
     }
 
     // PAYMENT PROCESSING
     public static Map<String, Object> markOrderAsPaid(int orderId) {
+        return markOrderAsPaid(orderId, System.currentTimeMillis());
+    }
+
+    // PAYMENT PROCESSING: Payment time is passed in so journal replay reproduces it
+    public static Map<String, Object> markOrderAsPaid(int orderId, long paidAt) {
+        return StateLock.write(() -> applyPayment(orderId, paidAt));
+    }
+
+    private static Map<String, Object> applyPayment(int orderId, long paidAt) {
+        long start = System.nanoTime();
         Order order = findOrderById(orderId);
         if (order == null) {
             throw new IllegalArgumentException("Order not found");
@@ -210,7 +253,10 @@ public class Order {
             Waiter.releaseWaiterAfterPayment(order.waiterId, isDineIn);
         }
 
+        order.paidAt = paidAt;
         order.setPaid(true);
+        OrderRegistry.markClosed(order);
+        ReportAggregator.recordPayment(order, patron != null && patron.getServiceType() == 1);
 
         // Release table for dine-in customers
         if (patron != null) {
@@ -222,6 +268,13 @@ public class Order {
             }
             removePatronFromQueues(patron.getId());
         }
+        Journal.recordOrderPaid(orderId, paidAt);
+        FloorEvents.orderChanged(order);
+        if (!Journal.isReplaying()) {
+            Metrics.PAYMENTS.increment();
+            Metrics.REVENUE_CENTS.add(order.getTotalCents());
+        }
+        Metrics.MARK_PAID.recordSince(start);
 
         Map<String, Object> result = new HashMap<>();
         result.put("message", "Order marked as paid successfully");
@@ -231,112 +284,82 @@ public class Order {
     }
 
     // ORDER RETRIEVAL METHODS
+    // Both read the order, its lines and its patron together, so under the read lock
     public static Map<String, Object> getOrderDetails(int orderId) {
-        Order order = findOrderById(orderId);
-        if (order == null) {
-            throw new IllegalArgumentException("Order not found");
-        }
+        return StateLock.read(() -> {
+            Order order = findOrderById(orderId);
+            if (order == null) {
+                throw new IllegalArgumentException("Order not found");
+            }
 
-        Patron patron = Patron.findById(order.getPatronId());
-        return buildOrderResponse(order, patron);
+            Patron patron = Patron.findById(order.getPatronId());
+            return buildOrderResponse(order, patron);
+        });
     }
 
     public static Map<String, Object> getOrderByPatronId(int patronId) {
-        Patron patron = Patron.findById(patronId);
-        if (patron == null) {
-            throw new IllegalArgumentException("Patron not found");
-        }
+        return StateLock.read(() -> {
+            Patron patron = Patron.findById(patronId);
+            if (patron == null) {
+                throw new IllegalArgumentException("Patron not found");
+            }
 
-        Order order = patron.getOrder();
-        if (order == null) {
-            throw new IllegalArgumentException("No order found for patron");
-        }
+            Order order = patron.getOrder();
+            if (order == null) {
+                throw new IllegalArgumentException("No order found for patron");
+            }
 
-        return buildOrderResponse(order, patron);
+            return buildOrderResponse(order, patron);
+        });
     }
 
     public static List<Map<String, Object>> getUnpaidOrders() {
         List<Map<String, Object>> unpaidList = new ArrayList<>();
-        for (Order order : ordersList) {
-            if (!order.isPaid()) {
-                Patron patron = Patron.findById(order.getPatronId());
-                unpaidList.add(buildOrderResponse(order, patron));
-            }
+        for (Order order : OrderRegistry.openOrders()) {
+            Patron patron = Patron.findById(order.getPatronId());
+            unpaidList.add(buildOrderResponse(order, patron));
         }
         return unpaidList;
     }
 
     public static List<Map<String, Object>> getPendingOrders() {
         List<Map<String, Object>> pendingList = new ArrayList<>();
-        for (Order order : ordersList) {
-            if (!order.isPaid()) {
-                Patron patron = Patron.findById(order.getPatronId());
-                Map<String, Object> orderData = buildOrderResponse(order, patron);
-
-                int totalItems = order.getItems().stream().mapToInt(OrderItem::getQuantity).sum();
-                orderData.put("totalItems", totalItems);
-
-                pendingList.add(orderData);
-            }
+        for (Order order : OrderRegistry.openOrders()) {
+            pendingList.add(pendingOrderDetails(order));
         }
         return pendingList;
     }
 
-    // HELPER METHODS
-    private void addItem(String name, int quantity) {
-        if (quantity <= 0) {
-            throw new IllegalArgumentException("Quantity must be positive");
-        }
-
-        MenuItem menuItem = findMenuItem(name);
-        if (menuItem == null) {
-            throw new IllegalArgumentException("Menu item not found: " + name);
-        }
-
-        // Check if item already exists in order
-        for (OrderItem item : items) {
-            if (item.getName().equalsIgnoreCase(name)) {
-                item.setQuantity(item.getQuantity() + quantity);
-                calculateTotal();
-                return;
-            }
-        }
-
-        // Add new item to order
-        items.add(new OrderItem(itemIdCounter++, name, menuItem.getPrice(), quantity, menuItem.getCategory()));
-        calculateTotal();
+    // One entry of the pending orders list
+    public static Map<String, Object> pendingOrderDetails(Order order) {
+        Patron patron = Patron.findById(order.getPatronId());
+        Map<String, Object> orderData = buildOrderResponse(order, patron);
+        orderData.put("totalItems", order.getTotalItems());
+        return orderData;
     }
 
-    private void calculateTotal() {
-        total = 0;
-        for (OrderItem item : items) {
-            total += item.getPrice() * item.getQuantity();
-        }
-        total = Math.round(total * 100.0) / 100.0;
-    }
+    // HELPER METHODS
+    private static MenuItem[] resolveItems(MenuCatalog catalog, List<OrderItemRequest> itemRequests) {
+        MenuItem[] menuItems = new MenuItem[itemRequests.size()];
+        for (int i = 0; i < menuItems.length; i++) {
+            OrderItemRequest itemReq = itemRequests.get(i);
+            if (itemReq.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive");
+            }
 
-    private static MenuItem findMenuItem(String name) {
-        for (MenuItem item : MENU) {
-            if (item.getName().equalsIgnoreCase(name)) {
-                return item;
+            menuItems[i] = catalog.findByName(itemReq.getName());
+            if (menuItems[i] == null) {
+                throw new IllegalArgumentException("Menu item not found: " + itemReq.getName());
             }
         }
-        return null;
+        return menuItems;
     }
 
-    private static Waiter findWaiterById(String staffId) {
-        if (staffId == null)
-            return null;
-        Waiter current = Waiter.head;
-        if (current != null) {
-            do {
-                if (current.getStaffId().equals(staffId)) {
-                    return current;
-                }
-                current = current.nextWaiter;
-            } while (current != Waiter.head);
-        }
-        return null;
+    private void addItem(MenuItem menuItem, int quantity) {
+        // Merges into the existing line for this item, if any
+        lines.add(menuItem.getOrdinal(), quantity);
+        totalItems += quantity;
+        totalCents += menuItem.getPriceCents() * quantity;
     }
 
     private static void removePatronFromQueues(int patronId) {
@@ -350,6 +373,7 @@ public class Order {
 
         while (current != null) {
             if (current.getId() == patronId) {
+                current.leaveQueue();
                 if (prev == null) {
                     if (isDineIn)
                         Patron.firstDineIn = current.next;
@@ -374,13 +398,15 @@ public class Order {
 
     // RESPONSE BUILDING METHODS
     private static Map<String, Object> buildOrderResponse(Order order, Patron patron) {
-        List<Map<String, Object>> itemsData = new ArrayList<>();
-        for (OrderItem item : order.getItems()) {
+        OrderLines lines = order.getLines();
+        List<Map<String, Object>> itemsData = new ArrayList<>(lines.size());
+        for (int line = 0; line < lines.size(); line++) {
+            MenuItem menuItem = lines.menuItemAt(line);
             Map<String, Object> itemMap = new HashMap<>();
-            itemMap.put("name", item.getName());
-            itemMap.put("price", item.getPrice());
-            itemMap.put("quantity", item.getQuantity());
-            itemMap.put("category", item.getCategory());
+            itemMap.put("name", menuItem.getName());
+            itemMap.put("price", menuItem.getPrice());
+            itemMap.put("quantity", lines.quantityAt(line));
+            itemMap.put("category", menuItem.getCategory());
             itemsData.add(itemMap);
         }
 
@@ -396,6 +422,7 @@ public class Order {
         response.put("orderType", orderType);
         response.put("tableNumber", order.getTableNumber());
         response.put("isPaid", order.isPaid());
+        response.put("createdAt", order.getCreatedAt());
         return response;
     }
 
@@ -410,28 +437,30 @@ public class Order {
         receipt.put("waiterName", waiter != null ? waiter.getName() : "Unassigned");
         receipt.put("orderType", orderType);
         receipt.put("tableNumber", patron != null ? patron.getTableId() : 0);
-        receipt.put("timestamp", new Date());
+        receipt.put("createdAt", order.getCreatedAt());
+        receipt.put("timestamp", new Date(order.getPaidAt()));
         return receipt;
     }
 
     public static Order findOrderById(int orderId) {
-        return allOrders.get(orderId);
+        return OrderRegistry.findById(orderId);
     }
 
-    public static List<Order> getAllOrders() {
-        return new ArrayList<>(ordersList);
+    public static Collection<Order> getAllOrders() {
+        return OrderRegistry.orders();
     }
 
     // INNER CLASSES
     public static class MenuItem {
         private String name;
-        private double price;
+        private long priceCents;
         private String category;
         private String description;
+        private int ordinal = -1;
 
         public MenuItem(String name, double price, String category, String description) {
             this.name = name;
-            this.price = price;
+            this.priceCents = Money.fromRands(price);
             this.category = category;
             this.description = description;
         }
@@ -441,7 +470,11 @@ public class Order {
         }
 
         public double getPrice() {
-            return price;
+            return Money.toRands(priceCents);
+        }
+
+        public long getPriceCents() {
+            return priceCents;
         }
 
         public String getCategory() {
@@ -451,6 +484,15 @@ public class Order {
         public String getDescription() {
             return description;
         }
+
+        // Dense position of this item in the MenuCatalog that holds it, -1 before it joins one
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        void setOrdinal(int ordinal) {
+            this.ordinal = ordinal;
+        }
     }
 
     public static class OrderItem {
@@ -0,0 +1,305 @@
+package backend.models;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// End-of-day archive of paid orders.
+//
+// Each business day gets two append-only files in the archive directory:
+//   <date>.seg  header (magic, version) followed by one record per paid order
+//   <date>.idx  one (orderId, segment offset) pair per record
+//
+// Record layout (big-endian):
+//   int length, int orderId, int patronId, int tableNumber, byte serviceType,
+//   long paidAt, long totalCents, utf staffId, short lineCount,
+//   then per line: int quantity, long priceCents, utf name, utf category
+// where utf is a short byte length followed by UTF-8 bytes (-1 for null).
+public class OrderArchive {
+    private static final Logger LOG = Logger.getLogger(OrderArchive.class.getName());
+
+    static final int SEGMENT_MAGIC = 0x504F5341; // "POSA"
+    static final short SEGMENT_VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 6;
+    static final int INDEX_ENTRY_BYTES = 12;
+
+    private static Path directory = Paths.get("data", "archive");
+
+    // Orders whose segment write failed, retried on the next rollover
+    private static final Map<LocalDate, List<Order>> pendingDays = new TreeMap<>();
+
+    // Open readers, replaced whenever a day is appended to
+    private static final Map<LocalDate, ArchivedDay> openDays = new ConcurrentHashMap<>();
+
+    // Serialises rollovers with each other and with opening readers. A ReentrantLock
+    // rather than a monitor, since rollover holds it across file writes and fsyncs and
+    // a report request blocked on a monitor would pin its virtual thread's carrier.
+    private static final ReentrantLock archiveLock = new ReentrantLock();
+
+    // CONFIGURATION
+    public static void configure(Path archiveDirectory) {
+        archiveLock.lock();
+        try {
+            directory = archiveDirectory;
+            openDays.clear();
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    public static Path getDirectory() {
+        return directory;
+    }
+
+    // DAY ROLLOVER: Move the closed day's paid orders to disk and evict them from memory.
+    // Only taking the batch and evicting it hold the StateLock; the segment writes and
+    // their fsync run in between without it, while the orders are still served from memory.
+    public static int rollover(LocalDate businessDay) {
+        archiveLock.lock();
+        try {
+            Map<LocalDate, List<Order>> batch = StateLock.write(() -> {
+                List<Order> closed = ReportAggregator.closeDay();
+                if (!closed.isEmpty()) {
+                    pendingDays.computeIfAbsent(businessDay, k -> new ArrayList<>()).addAll(closed);
+                }
+                Journal.recordDayClosed(businessDay);
+                return copyPendingDays();
+            });
+            if (batch.isEmpty())
+                return 0;
+
+            List<LocalDate> durable = archiveDays(batch);
+            if (durable.isEmpty())
+                return 0;
+
+            return StateLock.write(() -> evictDays(durable));
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    // Paid orders no longer change, so the copy can be written out after the lock is released
+    private static Map<LocalDate, List<Order>> copyPendingDays() {
+        Map<LocalDate, List<Order>> copy = new TreeMap<>();
+        for (Map.Entry<LocalDate, List<Order>> entry : pendingDays.entrySet()) {
+            copy.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+        return copy;
+    }
+
+    // Days whose segment and index reached disk; a failed day stays pending for the next rollover
+    private static List<LocalDate> archiveDays(Map<LocalDate, List<Order>> batch) {
+        List<LocalDate> durable = new ArrayList<>(batch.size());
+        for (Map.Entry<LocalDate, List<Order>> entry : batch.entrySet()) {
+            try {
+                appendSegment(entry.getKey(), entry.getValue());
+                durable.add(entry.getKey());
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Failed to archive orders for " + entry.getKey() + ", will retry", e);
+            }
+        }
+        return durable;
+    }
+
+    // archiveLock keeps other rollovers out, so these days still hold exactly the orders written
+    private static int evictDays(List<LocalDate> days) {
+        int archived = 0;
+        for (LocalDate day : days) {
+            List<Order> orders = pendingDays.remove(day);
+            if (orders == null)
+                continue;
+
+            OrderRegistry.evict(orders);
+            for (Order order : orders) {
+                Patron.evict(order.getPatronId());
+            }
+            archived += orders.size();
+        }
+        return archived;
+    }
+
+    // SNAPSHOT SUPPORT: Orders waiting for a retry, guarded by the StateLock like the rest of the model
+    static Map<LocalDate, List<Order>> pendingDays() {
+        return pendingDays;
+    }
+
+    static void restorePendingDays(Map<LocalDate, List<Order>> days) {
+        pendingDays.clear();
+        pendingDays.putAll(days);
+    }
+
+    // READING: Memory-mapped reader for an archived day, or null if nothing was archived
+    public static ArchivedDay openDay(LocalDate day) throws IOException {
+        ArchivedDay reader = openDays.get(day);
+        if (reader != null)
+            return reader;
+
+        Path segment = segmentPath(day);
+        if (!Files.exists(segment))
+            return null;
+
+        archiveLock.lock();
+        try {
+            reader = openDays.get(day);
+            if (reader == null) {
+                reader = ArchivedDay.open(day, segment, indexPath(day));
+                openDays.put(day, reader);
+            }
+            return reader;
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    // READING: All archived business days, oldest first
+    public static List<LocalDate> archivedDays() throws IOException {
+        List<LocalDate> days = new ArrayList<>();
+        if (!Files.isDirectory(directory))
+            return days;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.seg")) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                days.add(LocalDate.parse(name.substring(0, name.length() - 4)));
+            }
+        }
+        Collections.sort(days);
+        return days;
+    }
+
+    // HELPER METHODS
+    private static void appendSegment(LocalDate day, List<Order> orders) throws IOException {
+        Files.createDirectories(directory);
+        Path segment = segmentPath(day);
+
+        try (FileChannel seg = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+                FileChannel idx = FileChannel.open(indexPath(day), StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            // Start from the last complete write, dropping any torn tail from an earlier failure
+            long segmentEnd = seg.size();
+            long indexEnd = idx.size() - (idx.size() % INDEX_ENTRY_BYTES);
+            if (segmentEnd == 0) {
+                ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+                header.putInt(SEGMENT_MAGIC).putShort(SEGMENT_VERSION).flip();
+                segmentEnd += seg.write(header, 0);
+            } else if (indexEnd > 0) {
+                segmentEnd = Math.min(segmentEnd, lastRecordEnd(seg, idx, indexEnd));
+            } else {
+                segmentEnd = SEGMENT_HEADER_BYTES;
+            }
+
+            // A replayed rollover may find its orders already on disk
+            Set<Integer> archivedIds = readOrderIds(idx, indexEnd);
+            List<Order> toWrite = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                if (!archivedIds.contains(order.getOrderId())) {
+                    toWrite.add(order);
+                }
+            }
+            orders = toWrite;
+
+            ByteArrayOutputStream records = new ByteArrayOutputStream(orders.size() * 128);
+            DataOutputStream out = new DataOutputStream(records);
+            ByteBuffer index = ByteBuffer.allocate(orders.size() * INDEX_ENTRY_BYTES);
+
+            for (Order order : orders) {
+                index.putInt(order.getOrderId()).putLong(segmentEnd + records.size());
+                writeRecord(out, order);
+            }
+            out.flush();
+            index.flip();
+
+            seg.write(ByteBuffer.wrap(records.toByteArray()), segmentEnd);
+            seg.truncate(segmentEnd + records.size());
+            seg.force(true);
+
+            // Index goes last so a reader never sees an entry without its record
+            idx.write(index, indexEnd);
+            idx.truncate(indexEnd + (long) orders.size() * INDEX_ENTRY_BYTES);
+            idx.force(true);
+        }
+
+        openDays.remove(day);
+    }
+
+    private static Set<Integer> readOrderIds(FileChannel idx, long indexEnd) throws IOException {
+        Set<Integer> ids = new HashSet<>();
+        if (indexEnd == 0)
+            return ids;
+
+        ByteBuffer index = ByteBuffer.allocate(Math.toIntExact(indexEnd));
+        while (index.hasRemaining() && idx.read(index, index.position()) > 0) {
+        }
+        index.flip();
+        while (index.remaining() >= INDEX_ENTRY_BYTES) {
+            ids.add(index.getInt());
+            index.getLong();
+        }
+        return ids;
+    }
+
+    private static long lastRecordEnd(FileChannel seg, FileChannel idx, long indexEnd) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        idx.read(entry, indexEnd - INDEX_ENTRY_BYTES);
+        long offset = entry.getLong(4);
+
+        ByteBuffer length = ByteBuffer.allocate(4);
+        seg.read(length, offset);
+        return offset + 4 + length.getInt(0);
+    }
+
+    private static void writeRecord(DataOutputStream out, Order order) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(128);
+        DataOutputStream rec = new DataOutputStream(body);
+
+        rec.writeInt(order.getOrderId());
+        rec.writeInt(order.getPatronId());
+        rec.writeInt(order.getTableNumber());
+        rec.writeByte(order.getServiceType());
+        rec.writeLong(order.getPaidAt());
+        rec.writeLong(order.getTotalCents());
+        writeUtf(rec, order.getWaiterStaffId());
+
+        OrderLines lines = order.getLines();
+        rec.writeShort(lines.size());
+        for (int line = 0; line < lines.size(); line++) {
+            Order.MenuItem item = lines.menuItemAt(line);
+            rec.writeInt(lines.quantityAt(line));
+            rec.writeLong(item.getPriceCents());
+            writeUtf(rec, item.getName());
+            writeUtf(rec, item.getCategory());
+        }
+        rec.flush();
+
+        out.writeInt(body.size());
+        body.writeTo(out);
+    }
+
+    private static void writeUtf(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Path segmentPath(LocalDate day) {
+        return directory.resolve(day + ".seg");
+    }
+
+    private static Path indexPath(LocalDate day) {
+        return directory.resolve(day + ".idx");
+    }
+}
@@ -0,0 +1,168 @@
+package backend.models;
+
+import java.util.*;
+
+// Applies an ordered list of floor commands in one pass. The whole batch runs
+// under a single StateLock write lock and waits for the journal once, so a
+// terminal pays one HTTP round trip, one lock hand-off and one fsync for many
+// commands. Each command succeeds or fails on its own; a failed command
+// changes nothing and the rest of the batch still runs.
+//
+// A command can use the patron or order produced by an earlier command in the
+// same batch through patronFrom / orderFrom (the earlier command's index).
+public class OrderBatch {
+
+    public static final String ADD_PATRON = "add-patron";
+    public static final String CREATE = "create";
+    public static final String ADD_ITEMS = "add-items";
+    public static final String MARK_PAID = "mark-paid";
+
+    // BATCH EXECUTION: Run every command in order, returning one result per command
+    public static List<Map<String, Object>> execute(List<Command> commands) {
+        return StateLock.write(() -> {
+            List<Map<String, Object>> results = new ArrayList<>(commands.size());
+            for (int index = 0; index < commands.size(); index++) {
+                Map<String, Object> result = new HashMap<>();
+                result.put("index", index);
+                try {
+                    result.put("result", apply(commands.get(index), results));
+                    result.put("status", "ok");
+                } catch (Exception e) {
+                    result.put("status", "error");
+                    result.put("error", e.getMessage());
+                }
+                results.add(result);
+            }
+            return results;
+        });
+    }
+
+    // HELPER METHODS
+    private static Map<String, Object> apply(Command command, List<Map<String, Object>> earlier) {
+        if (command == null || command.getType() == null) {
+            throw new IllegalArgumentException("Command type is required");
+        }
+
+        switch (command.getType()) {
+            case ADD_PATRON:
+                return Patron.createNewPatron(command.getOrderType(), command.getGroupSize());
+            case CREATE:
+                return Order.createOrder(resolveId(command.getPatronId(), command.getPatronFrom(), "id", earlier),
+                        requireItems(command));
+            case ADD_ITEMS:
+                return Order.addItemsToOrder(resolveId(command.getOrderId(), command.getOrderFrom(), "orderId", earlier),
+                        requireItems(command));
+            case MARK_PAID:
+                return Order.markOrderAsPaid(resolveId(command.getOrderId(), command.getOrderFrom(), "orderId", earlier));
+            default:
+                throw new IllegalArgumentException("Unknown command type: " + command.getType());
+        }
+    }
+
+    // Id given directly, or taken from the result of an earlier command in the batch
+    @SuppressWarnings("unchecked")
+    private static int resolveId(Integer id, Integer from, String key, List<Map<String, Object>> earlier) {
+        if (from == null) {
+            if (id == null) {
+                throw new IllegalArgumentException("Missing " + key);
+            }
+            return id;
+        }
+
+        if (from < 0 || from >= earlier.size()) {
+            throw new IllegalArgumentException("Command " + from + " is not earlier in the batch");
+        }
+        Map<String, Object> source = earlier.get(from);
+        if (!"ok".equals(source.get("status"))) {
+            throw new IllegalArgumentException("Command " + from + " failed");
+        }
+        Object value = ((Map<String, Object>) source.get("result")).get(key);
+        if (!(value instanceof Integer)) {
+            throw new IllegalArgumentException("Command " + from + " did not produce " + key);
+        }
+        return (Integer) value;
+    }
+
+    private static List<Order.OrderItemRequest> requireItems(Command command) {
+        if (command.getItems() == null || command.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Items are required");
+        }
+        return command.getItems();
+    }
+
+    // INNER CLASSES
+    public static class Command {
+        private String type;
+        private int orderType;
+        private Integer groupSize;
+        private Integer patronId;
+        private Integer orderId;
+        private Integer patronFrom;
+        private Integer orderFrom;
+        private List<Order.OrderItemRequest> items;
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public int getOrderType() {
+            return orderType;
+        }
+
+        public void setOrderType(int orderType) {
+            this.orderType = orderType;
+        }
+
+        public Integer getGroupSize() {
+            return groupSize;
+        }
+
+        public void setGroupSize(Integer groupSize) {
+            this.groupSize = groupSize;
+        }
+
+        public Integer getPatronId() {
+            return patronId;
+        }
+
+        public void setPatronId(Integer patronId) {
+            this.patronId = patronId;
+        }
+
+        public Integer getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(Integer orderId) {
+            this.orderId = orderId;
+        }
+
+        public Integer getPatronFrom() {
+            return patronFrom;
+        }
+
+        public void setPatronFrom(Integer patronFrom) {
+            this.patronFrom = patronFrom;
+        }
+
+        public Integer getOrderFrom() {
+            return orderFrom;
+        }
+
+        public void setOrderFrom(Integer orderFrom) {
+            this.orderFrom = orderFrom;
+        }
+
+        public List<Order.OrderItemRequest> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Order.OrderItemRequest> items) {
+            this.items = items;
+        }
+    }
+}
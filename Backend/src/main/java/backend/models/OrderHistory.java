@@ -0,0 +1,200 @@
+package backend.models;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// Paid order lines of the current business day, stored column by column.
+//
+// Each row is one order line: the order it belongs to, when it was paid, the
+// waiter (as a small index), table, service type, menu ordinal, category
+// (also a small index), quantity and line total in cents. Rows are appended on
+// payment and the columns grow by doubling, so breakdowns by category, waiter
+// or hour are single passes over primitive arrays instead of walks through
+// orders and their lines. Key columns can also be summed with the incubating
+// Vector API, when enabled, built with the vector-api Maven profile and the JVM
+// runs with --add-modules jdk.incubator.vector.
+//
+// Guarded by the StateLock like the rest of the model; readers synchronize
+// on the class as well so a report never sees a half-appended row.
+public class OrderHistory {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static int size = 0;
+    private static int[] orderIds = new int[INITIAL_CAPACITY];
+    private static long[] paidAt = new long[INITIAL_CAPACITY];
+    private static int[] waiterIndexes = new int[INITIAL_CAPACITY];
+    private static int[] tableNumbers = new int[INITIAL_CAPACITY];
+    private static byte[] serviceTypes = new byte[INITIAL_CAPACITY];
+    private static int[] menuOrdinals = new int[INITIAL_CAPACITY];
+    private static int[] categoryIndexes = new int[INITIAL_CAPACITY];
+    private static int[] quantities = new int[INITIAL_CAPACITY];
+    private static long[] lineCents = new long[INITIAL_CAPACITY];
+
+    // Dictionaries behind the index columns, in the order values were first seen
+    private static final List<String> waiterIds = new ArrayList<>();
+    private static final Map<String, Integer> waiterIndexById = new HashMap<>();
+    private static final List<String> categories = new ArrayList<>();
+    private static final Map<String, Integer> categoryIndexByName = new HashMap<>();
+
+    // The Vector API only resolves when the JVM was started with the incubator module
+    private static final boolean VECTOR_API_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    private static volatile boolean vectorized = false;
+
+    // RECORDING: Append one row per line of a paid order
+    static synchronized void append(Order order) {
+        OrderLines lines = order.getLines();
+        ensureCapacity(size + lines.size());
+
+        int waiter = waiterIndex(order.getWaiterStaffId());
+        for (int line = 0; line < lines.size(); line++) {
+            Order.MenuItem item = lines.menuItemAt(line);
+            int quantity = lines.quantityAt(line);
+
+            orderIds[size] = order.getOrderId();
+            paidAt[size] = order.getPaidAt();
+            waiterIndexes[size] = waiter;
+            tableNumbers[size] = order.getTableNumber();
+            serviceTypes[size] = (byte) order.getServiceType();
+            menuOrdinals[size] = item.getOrdinal();
+            categoryIndexes[size] = categoryIndex(item.getCategory());
+            quantities[size] = quantity;
+            lineCents[size] = item.getPriceCents() * quantity;
+            size++;
+        }
+    }
+
+    // DAY ROLLOVER: Start an empty history, keeping the allocated columns
+    static synchronized void clear() {
+        size = 0;
+        waiterIds.clear();
+        waiterIndexById.clear();
+        categories.clear();
+        categoryIndexByName.clear();
+    }
+
+    // CONFIGURATION: Use the Vector API for key sums; ignored when the module is not loaded,
+    // the build left VectorAggregates out or this JVM has no vector shape it can use
+    public static void setVectorized(boolean enabled) {
+        vectorized = enabled && VECTOR_API_AVAILABLE && VectorKernel.SUMS != null;
+    }
+
+    public static boolean isVectorized() {
+        return vectorized;
+    }
+
+    public static synchronized int size() {
+        return size;
+    }
+
+    // AGGREGATION: Revenue per menu category, in the order categories were first sold
+    public static synchronized Map<String, Double> revenueByCategory() {
+        return toRandsByName(sumByKey(categoryIndexes, categories.size()), categories);
+    }
+
+    // AGGREGATION: Revenue per waiter staff id, orders without a waiter under "unassigned"
+    public static synchronized Map<String, Double> revenueByWaiter() {
+        return toRandsByName(sumByKey(waiterIndexes, waiterIds.size()), waiterIds);
+    }
+
+    // AGGREGATION: Revenue per hour of the day (0-23) in the given time zone
+    public static synchronized double[] revenueByHour(ZoneId zone) {
+        long[] sums = new long[24];
+        if (size > 0) {
+            // A business day sits inside one offset apart from the odd DST switch, so take it once
+            ZoneOffset offset = zone.getRules().getOffset(Instant.ofEpochMilli(paidAt[0]));
+            long offsetMillis = offset.getTotalSeconds() * 1000L;
+            for (int row = 0; row < size; row++) {
+                int hour = (int) Math.floorMod((paidAt[row] + offsetMillis) / 3_600_000L, 24L);
+                sums[hour] += lineCents[row];
+            }
+        }
+
+        double[] rands = new double[24];
+        for (int hour = 0; hour < 24; hour++) {
+            rands[hour] = Money.toRands(sums[hour]);
+        }
+        return rands;
+    }
+
+    // HELPER METHODS
+    private static long[] sumByKey(int[] keys, int keyCount) {
+        if (vectorized) {
+            return VectorKernel.SUMS.sumByKey(keys, lineCents, size, keyCount);
+        }
+
+        long[] sums = new long[keyCount];
+        for (int row = 0; row < size; row++) {
+            sums[keys[row]] += lineCents[row];
+        }
+        return sums;
+    }
+
+    private static Map<String, Double> toRandsByName(long[] sums, List<String> names) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int key = 0; key < sums.length; key++) {
+            result.put(names.get(key), Money.toRands(sums[key]));
+        }
+        return result;
+    }
+
+    private static int waiterIndex(String staffId) {
+        String key = staffId != null ? staffId : "unassigned";
+        Integer index = waiterIndexById.get(key);
+        if (index == null) {
+            index = waiterIds.size();
+            waiterIds.add(key);
+            waiterIndexById.put(key, index);
+        }
+        return index;
+    }
+
+    private static int categoryIndex(String category) {
+        Integer index = categoryIndexByName.get(category);
+        if (index == null) {
+            index = categories.size();
+            categories.add(category);
+            categoryIndexByName.put(category, index);
+        }
+        return index;
+    }
+
+    private static void ensureCapacity(int required) {
+        if (required <= orderIds.length)
+            return;
+
+        int capacity = Math.max(required, orderIds.length * 2);
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        paidAt = Arrays.copyOf(paidAt, capacity);
+        waiterIndexes = Arrays.copyOf(waiterIndexes, capacity);
+        tableNumbers = Arrays.copyOf(tableNumbers, capacity);
+        serviceTypes = Arrays.copyOf(serviceTypes, capacity);
+        menuOrdinals = Arrays.copyOf(menuOrdinals, capacity);
+        categoryIndexes = Arrays.copyOf(categoryIndexes, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        lineCents = Arrays.copyOf(lineCents, capacity);
+    }
+
+    // INNER CLASSES
+    // Key sums over the value column; VectorAggregates is the only implementation
+    interface KeySums {
+        long[] sumByKey(int[] keys, long[] values, int size, int keyCount);
+    }
+
+    // Loaded on first use, so the kernel is only looked up once the Vector API is asked for
+    private static final class VectorKernel {
+        static final KeySums SUMS = load();
+
+        private static KeySums load() {
+            try {
+                return (KeySums) Class.forName("backend.models.VectorAggregates").getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return null;
+            }
+        }
+    }
+}
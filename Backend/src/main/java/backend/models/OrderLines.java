@@ -0,0 +1,162 @@
+package backend.models;
+
+import java.util.*;
+
+// Compact line store for one order: parallel primitive arrays plus a small
+// open-addressing index from menu ordinal to line position. Orders with only a
+// few lines are matched by scanning the ordinal array, the index is built once
+// an order grows past LINEAR_SCAN_LIMIT lines.
+public class OrderLines {
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    private final MenuCatalog catalog;
+    private int[] ordinals;
+    private int[] quantities;
+    private int[] itemIds;
+    private int size;
+
+    // Open-addressing index: slot holds ordinal + 1 (0 means empty) and the line position
+    private int[] slotKeys;
+    private int[] slotLines;
+
+    public OrderLines(MenuCatalog catalog) {
+        this.catalog = catalog;
+        this.ordinals = new int[INITIAL_CAPACITY];
+        this.quantities = new int[INITIAL_CAPACITY];
+        this.itemIds = new int[INITIAL_CAPACITY];
+    }
+
+    // LINE UPDATE: Add quantity to the line for this ordinal, creating it if needed
+    public void add(int ordinal, int quantity) {
+        int line = indexOf(ordinal);
+        if (line >= 0) {
+            quantities[line] += quantity;
+            return;
+        }
+
+        if (size == ordinals.length) {
+            grow();
+        }
+
+        ordinals[size] = ordinal;
+        quantities[size] = quantity;
+        itemIds[size] = OrderRegistry.nextItemId();
+        size++;
+
+        if (slotKeys != null) {
+            insertSlot(ordinal, size - 1);
+        } else if (size > LINEAR_SCAN_LIMIT) {
+            rebuildIndex();
+        }
+    }
+
+    // SNAPSHOT SUPPORT: Append a line that already has an item id
+    void restoreLine(int ordinal, int quantity, int itemId) {
+        if (size == ordinals.length) {
+            grow();
+        }
+
+        ordinals[size] = ordinal;
+        quantities[size] = quantity;
+        itemIds[size] = itemId;
+        size++;
+
+        if (slotKeys != null) {
+            insertSlot(ordinal, size - 1);
+        } else if (size > LINEAR_SCAN_LIMIT) {
+            rebuildIndex();
+        }
+    }
+
+    // LINE LOOKUP: Line position for this ordinal, or -1
+    public int indexOf(int ordinal) {
+        if (slotKeys == null) {
+            for (int line = 0; line < size; line++) {
+                if (ordinals[line] == ordinal) {
+                    return line;
+                }
+            }
+            return -1;
+        }
+
+        int slot = findSlot(ordinal);
+        return slotKeys[slot] != 0 ? slotLines[slot] : -1;
+    }
+
+    // LINE ACCESS
+    public int size() {
+        return size;
+    }
+
+    public int ordinalAt(int line) {
+        return ordinals[line];
+    }
+
+    public int quantityAt(int line) {
+        return quantities[line];
+    }
+
+    public int itemIdAt(int line) {
+        return itemIds[line];
+    }
+
+    public Order.MenuItem menuItemAt(int line) {
+        return catalog.getByOrdinal(ordinals[line]);
+    }
+
+    public MenuCatalog getCatalog() {
+        return catalog;
+    }
+
+    // VIEW: Materialise lines as OrderItems for API responses
+    public List<Order.OrderItem> toOrderItems() {
+        List<Order.OrderItem> items = new ArrayList<>(size);
+        for (int line = 0; line < size; line++) {
+            Order.MenuItem menuItem = menuItemAt(line);
+            items.add(new Order.OrderItem(itemIds[line], menuItem.getName(), menuItem.getPrice(),
+                    quantities[line], menuItem.getCategory()));
+        }
+        return items;
+    }
+
+    // HELPER METHODS
+    private int findSlot(int ordinal) {
+        int mask = slotKeys.length - 1;
+        int slot = mix(ordinal) & mask;
+        while (slotKeys[slot] != 0 && slotKeys[slot] != ordinal + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertSlot(int ordinal, int line) {
+        int slot = findSlot(ordinal);
+        slotKeys[slot] = ordinal + 1;
+        slotLines[slot] = line;
+    }
+
+    private void grow() {
+        int capacity = ordinals.length * 2;
+        ordinals = Arrays.copyOf(ordinals, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        itemIds = Arrays.copyOf(itemIds, capacity);
+        if (slotKeys != null) {
+            rebuildIndex();
+        }
+    }
+
+    // Index is sized to stay at most half full
+    private void rebuildIndex() {
+        slotKeys = new int[ordinals.length * 2];
+        slotLines = new int[ordinals.length * 2];
+        for (int line = 0; line < size; line++) {
+            insertSlot(ordinals[line], line);
+        }
+    }
+
+    private static int mix(int ordinal) {
+        int h = ordinal * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
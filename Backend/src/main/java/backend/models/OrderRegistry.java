@@ -0,0 +1,97 @@
+package backend.models;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OrderRegistry {
+
+    // Id generation shared by every request thread
+    private static final AtomicInteger orderIdCounter = new AtomicInteger(1);
+    private static final AtomicInteger itemIdCounter = new AtomicInteger(1);
+
+    // Lock-free lookup by id and append-only iteration in creation order
+    private static final Map<Integer, Order> ordersById = new ConcurrentHashMap<>();
+    private static final Queue<Order> ordersInOrder = new ConcurrentLinkedQueue<>();
+    private static final Collection<Order> ordersView = Collections.unmodifiableCollection(ordersInOrder);
+
+    // Orders that are not yet paid, sorted by id so they come out in creation order
+    private static final ConcurrentSkipListMap<Integer, Order> openOrders = new ConcurrentSkipListMap<>();
+    private static final Collection<Order> openOrdersView = Collections.unmodifiableCollection(openOrders.values());
+
+    // ID GENERATION
+    public static int nextOrderId() {
+        return orderIdCounter.getAndIncrement();
+    }
+
+    public static int nextItemId() {
+        return itemIdCounter.getAndIncrement();
+    }
+
+    // REGISTRATION: Publish a newly created order to all readers
+    public static void register(Order order) {
+        ordersById.put(order.getOrderId(), order);
+        ordersInOrder.add(order);
+        openOrders.put(order.getOrderId(), order);
+    }
+
+    // PAYMENT: Drop a paid order from the open order index
+    public static void markClosed(Order order) {
+        openOrders.remove(order.getOrderId());
+    }
+
+    // EVICTION: Drop archived orders from memory
+    public static void evict(Collection<Order> orders) {
+        if (orders.isEmpty())
+            return;
+        Set<Order> evicted = Collections.newSetFromMap(new IdentityHashMap<>());
+        evicted.addAll(orders);
+        for (Order order : orders) {
+            ordersById.remove(order.getOrderId(), order);
+            openOrders.remove(order.getOrderId(), order);
+        }
+        ordersInOrder.removeIf(evicted::contains);
+    }
+
+    // LOOKUP: Find order by id
+    public static Order findById(int orderId) {
+        return ordersById.get(orderId);
+    }
+
+    // ITERATION: Live view of all orders in creation order, no copy is made
+    public static Collection<Order> orders() {
+        return ordersView;
+    }
+
+    // ITERATION: Live view of unpaid orders only, costs O(open orders) to walk
+    public static Collection<Order> openOrders() {
+        return openOrdersView;
+    }
+
+    public static int openCount() {
+        return openOrders.size();
+    }
+
+    public static int size() {
+        return ordersById.size();
+    }
+
+    // SNAPSHOT SUPPORT: Counter positions and a full reset before a restore
+    static int peekNextOrderId() {
+        return orderIdCounter.get();
+    }
+
+    static int peekNextItemId() {
+        return itemIdCounter.get();
+    }
+
+    static void clear(int nextOrderId, int nextItemId) {
+        ordersById.clear();
+        ordersInOrder.clear();
+        openOrders.clear();
+        orderIdCounter.set(nextOrderId);
+        itemIdCounter.set(nextItemId);
+    }
+}
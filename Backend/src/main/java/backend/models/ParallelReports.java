@@ -0,0 +1,89 @@
+package backend.models;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Fork-join aggregation over archived order history. Every archived day is
+// split into chunks of consecutive records; each chunk is folded into its own
+// ReportTotals on a pool thread and the partial totals are merged back left
+// to right, so items and waiters come out in the same order a sequential scan
+// would produce. Archived days are read through absolute offsets on the mapped
+// segment, which lets all chunks of a day share one reader.
+public final class ParallelReports {
+
+    // Orders a task scans itself instead of splitting further
+    static final int CHUNK_ORDERS = 8192;
+
+    private ParallelReports() {
+    }
+
+    // AGGREGATION: Totals over one or more archived days, on the common pool
+    public static ReportTotals aggregate(List<ArchivedDay> days) {
+        return aggregate(days, ForkJoinPool.commonPool());
+    }
+
+    public static ReportTotals aggregate(List<ArchivedDay> days, ForkJoinPool pool) {
+        return pool.invoke(new DaysTask(days, 0, days.size()));
+    }
+
+    // INNER CLASSES
+    // Splits a list of days down to single days, then hands each day to a ChunkTask
+    private static class DaysTask extends RecursiveTask<ReportTotals> {
+        private final List<ArchivedDay> days;
+        private final int from;
+        private final int to;
+
+        DaysTask(List<ArchivedDay> days, int from, int to) {
+            this.days = days;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ReportTotals compute() {
+            if (to - from == 0)
+                return new ReportTotals();
+            if (to - from == 1) {
+                ArchivedDay day = days.get(from);
+                return new ChunkTask(day, 0, day.size()).compute();
+            }
+
+            int middle = (from + to) >>> 1;
+            DaysTask left = new DaysTask(days, from, middle);
+            left.fork();
+            ReportTotals right = new DaysTask(days, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // Halves a range of records in one day until it is small enough to scan
+    private static class ChunkTask extends RecursiveTask<ReportTotals> {
+        private final ArchivedDay day;
+        private final int from;
+        private final int to;
+
+        ChunkTask(ArchivedDay day, int from, int to) {
+            this.day = day;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ReportTotals compute() {
+            if (to - from <= CHUNK_ORDERS) {
+                ReportTotals totals = new ReportTotals();
+                for (int position = from; position < to; position++) {
+                    totals.add(day.get(position));
+                }
+                return totals;
+            }
+
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(day, from, middle);
+            left.fork();
+            ReportTotals right = new ChunkTask(day, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package backend.models;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Patron {
     private static int idCount = 1;
-    private static Map<Integer, Patron> allPatrons = new HashMap<>();
+    private static Map<Integer, Patron> allPatrons = new ConcurrentHashMap<>();
+    private static long nextQueuePosition = 0;
 
     public static Patron firstDineIn = null;
     public static Patron lastDineIn = null;
@@ -18,6 +20,7 @@ public class Patron {
     private int tableId;
     private Waiter waiter;
     private Order order;
+    private long queuePosition = -1;
     public Patron next;
 
     public Patron(String name, int groupSize, int serviceType) {
@@ -32,6 +35,17 @@ public class Patron {
         allPatrons.put(this.id, this);
     }
 
+    // Rebuilds a patron from a snapshot without drawing a new id
+    private Patron(int id, String name, int groupSize, int serviceType, int tableId, Waiter waiter) {
+        this.id = id;
+        this.name = name;
+        this.groupSize = groupSize;
+        this.serviceType = serviceType;
+        this.tableId = tableId;
+        this.waiter = waiter;
+        allPatrons.put(id, this);
+    }
+
     public int getId() {
         return id;
     }
@@ -69,34 +83,65 @@ public class Patron {
     }
 
     public void setOrder(Order o) {
+        if (isQueued()) {
+            PatronIndex.remove(this);
+        }
         this.order = o;
+        if (isQueued()) {
+            PatronIndex.add(this);
+        }
+    }
+
+    // Still in the dine-in or takeout queue, i.e. not yet paid
+    boolean isQueued() {
+        return queuePosition >= 0;
+    }
+
+    // Order of joining, across both queues
+    long getQueuePosition() {
+        return queuePosition;
+    }
+
+    void leaveQueue() {
+        PatronIndex.remove(this);
+        this.queuePosition = -1;
+    }
+
+    private void enterQueue() {
+        this.queuePosition = nextQueuePosition++;
+        PatronIndex.add(this);
     }
 
     // PATRON CREATION AND QUEUE MANAGEMENT
     public static Map<String, Object> createNewPatron(int serviceType, Integer groupSize) {
+        return StateLock.write(() -> {
+            if (serviceType == 1) {
+                if (!Waiter.hasAvailableWaitersForDineIn()) {
+                    throw new IllegalArgumentException("No available waiters for dine-in. Please order takeout.");
+                }
 
-        if (serviceType == 1) {
-            if (!Waiter.hasAvailableWaitersForDineIn()) {
-                throw new IllegalArgumentException("No available waiters for dine-in. Please order takeout.");
+                int finalGroupSize = groupSize != null && groupSize > 0 ? groupSize : 1; // Dine-in
+                if (!TableManager.hasAvailableTableForGroup(finalGroupSize)) {
+                    throw new IllegalArgumentException(
+                            "No available tables for group of " + finalGroupSize + ". Please order takeout.");
+                }
             }
 
-            int finalGroupSize = groupSize != null && groupSize > 0 ? groupSize : 1; // Dine-in
-            if (!TableManager.hasAvailableTableForGroup(finalGroupSize)) {
-                throw new IllegalArgumentException(
-                        "No available tables for group of " + finalGroupSize + ". Please order takeout.");
+            int finalGroupSize = serviceType == 0 ? 1 : (groupSize != null && groupSize > 0 ? groupSize : 1);
+            Patron patron = new Patron("Customer", finalGroupSize, serviceType);
+            patron.joinQueue();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("id", patron.getId());
+            response.put("groupSize", finalGroupSize);
+            response.put("serviceType", serviceType);
+            response.put("message", "Customer added successfully");
+            Journal.recordPatronCreated(serviceType, groupSize);
+            if (!Journal.isReplaying()) {
+                Metrics.PATRONS_CREATED.increment();
             }
-        }
-
-        int finalGroupSize = serviceType == 0 ? 1 : (groupSize != null && groupSize > 0 ? groupSize : 1);
-        Patron patron = new Patron("Customer", finalGroupSize, serviceType);
-        patron.joinQueue();
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", patron.getId());
-        response.put("groupSize", finalGroupSize);
-        response.put("serviceType", serviceType);
-        response.put("message", "Customer added successfully");
-        return response;
+            return response;
+        });
     }
 
     public void joinQueue() {
@@ -117,6 +162,7 @@ public class Patron {
             lastTakeout.next = this;
         }
         lastTakeout = this;
+        enterQueue();
     }
 
     private void addToDineIn() {
@@ -126,6 +172,8 @@ public class Patron {
             lastDineIn.next = this;
         }
         lastDineIn = this;
+        enterQueue();
+        DineInMatcher.enqueue(this);
     }
 
     // QUEUE PROCESSING METHODS
@@ -142,24 +190,12 @@ public class Patron {
         }
     }
 
+    // Runs when a dine-in patron joins and when a table is released; the
+    // DineInMatcher only looks at the parties the freed resources can serve
     public static void handleDineInQueue() {
-        Patron current = firstDineIn;
-        while (current != null) {
-            if (current.getTableId() == 0) {
-                if (current.getWaiter() == null) {
-                    Waiter w = Waiter.findFreeWaiterForDineIn();
-                    if (w != null) {
-                        current.setWaiter(w);
-                    }
-                }
-                TableManager.Table t = TableManager.findTable(current.getGroupSize());
-                if (t != null) {
-                    t.assignToPatron(current);
-                    current.setTableId(t.getNumber());
-                }
-            }
-            current = current.next;
-        }
+        long start = System.nanoTime();
+        DineInMatcher.match();
+        Metrics.DINE_IN_QUEUE.recordSince(start);
     }
 
     // PATRON SEARCH AND LISTS
@@ -167,6 +203,60 @@ public class Patron {
         return allPatrons.get(id);
     }
 
+    // Drop a patron whose paid order has been archived
+    public static void evict(int id) {
+        allPatrons.remove(id);
+    }
+
+    // SNAPSHOT SUPPORT: Every patron still in memory, queued or not
+    static Collection<Patron> allPatrons() {
+        return allPatrons.values();
+    }
+
+    static int peekNextId() {
+        return idCount;
+    }
+
+    static void clear(int nextId) {
+        allPatrons.clear();
+        firstDineIn = null;
+        lastDineIn = null;
+        firstTakeout = null;
+        lastTakeout = null;
+        idCount = nextId;
+        nextQueuePosition = 0;
+        PatronIndex.clear();
+        DineInMatcher.clear();
+    }
+
+    static Patron restore(int id, String name, int groupSize, int serviceType, int tableId, Waiter waiter) {
+        return new Patron(id, name, groupSize, serviceType, tableId, waiter);
+    }
+
+    // Relinks a queue in the given order, without assigning waiters or tables
+    static void restoreQueue(List<Patron> queue, boolean isDineIn) {
+        Patron first = null;
+        Patron last = null;
+        for (Patron patron : queue) {
+            patron.next = null;
+            if (first == null) {
+                first = patron;
+            } else {
+                last.next = patron;
+            }
+            last = patron;
+            patron.enterQueue();
+        }
+        if (isDineIn) {
+            firstDineIn = first;
+            lastDineIn = last;
+            DineInMatcher.rebuild(first);
+        } else {
+            firstTakeout = first;
+            lastTakeout = last;
+        }
+    }
+
     public static List<Patron> getAll() {
         List<Patron> list = new ArrayList<>();
         addFromQueue(firstDineIn, list);
@@ -182,72 +272,31 @@ public class Patron {
         }
     }
 
+    // Both come from the PatronIndex, in queue order, at the cost of the result
     public static List<Patron> getWithoutOrders() {
-        List<Patron> list = new ArrayList<>();
-        addWithoutOrders(firstDineIn, list);
-        addWithoutOrders(firstTakeout, list);
+        List<Patron> list = new ArrayList<>(
+                PatronIndex.dineInWithoutOrderCount() + PatronIndex.takeoutWithoutOrderCount());
+        list.addAll(PatronIndex.dineInWithoutOrder());
+        list.addAll(PatronIndex.takeoutWithoutOrder());
         return list;
     }
 
-    private static void addWithoutOrders(Patron start, List<Patron> list) {
-        Patron current = start;
-        while (current != null) {
-            if (current.getOrder() == null) {
-                list.add(current);
-            }
-            current = current.next;
-        }
-    }
-
     public static List<Patron> getDineInWithOrders() {
-        List<Patron> list = new ArrayList<>();
-        Patron current = firstDineIn;
-        while (current != null) {
-            if (current.getOrder() != null && current.getServiceType() == 1) {
-                list.add(current);
-            }
-            current = current.next;
-        }
-        return list;
+        return new ArrayList<>(PatronIndex.dineInPending());
     }
 
-    // COUNTING AND STATISTICS METHODS
+    // COUNTING AND STATISTICS METHODS: Constant time, maintained as patrons join, order and pay
     public static Map<String, Integer> getQueueCounts() {
         Map<String, Integer> counts = new HashMap<>();
-        counts.put("dineInQueue", countQueue(firstDineIn));
-        counts.put("takeoutQueue", countQueue(firstTakeout));
+        counts.put("dineInQueue", PatronIndex.dineInWithoutOrderCount());
+        counts.put("takeoutQueue", PatronIndex.takeoutWithoutOrderCount());
         return counts;
     }
 
-    private static int countQueue(Patron start) {
-        int count = 0;
-        Patron current = start;
-        while (current != null) {
-            if (current.getOrder() == null) {
-                count++;
-            }
-            current = current.next;
-        }
-        return count;
-    }
-
     public static Map<String, Integer> getPendingOrderCounts() {
         Map<String, Integer> counts = new HashMap<>();
-        int dineInPending = 0;
-        int takeoutPending = 0;
-
-        for (Patron patron : getAll()) {
-            if (patron.getOrder() != null && !patron.getOrder().isPaid()) {
-                if (patron.getServiceType() == 1) {
-                    dineInPending++;
-                } else if (patron.getServiceType() == 0) {
-                    takeoutPending++;
-                }
-            }
-        }
-
-        counts.put("dineInPending", dineInPending);
-        counts.put("takeoutPending", takeoutPending);
+        counts.put("dineInPending", PatronIndex.dineInPendingCount());
+        counts.put("takeoutPending", PatronIndex.takeoutPendingCount());
         return counts;
     }
 
@@ -255,8 +304,11 @@ public class Patron {
     public static Map<String, Object> checkDineInAvailability(int groupSize) {
         Map<String, Object> result = new HashMap<>();
 
-        boolean waitersAvailable = Waiter.hasAvailableWaitersForDineIn();
-        boolean tablesAvailable = TableManager.hasAvailableTableForGroup(groupSize);
+        // One read lock for both, so the answer reflects a single moment on the floor
+        boolean[] available = StateLock.read(() -> new boolean[] {
+                Waiter.hasAvailableWaitersForDineIn(), TableManager.hasAvailableTableForGroup(groupSize) });
+        boolean waitersAvailable = available[0];
+        boolean tablesAvailable = available[1];
         boolean canAccept = waitersAvailable && tablesAvailable;
 
         result.put("canAccept", canAccept);
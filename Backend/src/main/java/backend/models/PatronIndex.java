@@ -0,0 +1,88 @@
+package backend.models;
+
+import java.util.Collection;
+import java.util.TreeMap;
+
+// Queued patrons indexed by state, kept up to date as they move through the
+// lifecycle: joined a queue without an order, ordered (pending until paid),
+// then paid and removed from the queue. Each state is a map keyed by the
+// patron's place in the queue, so counts are the map sizes and lists come out
+// in queue order at the cost of their own length, as the walks over the
+// dine-in and takeout queues they replace returned them.
+//
+// Guarded by the StateLock write lock like the rest of the floor; counts and
+// lists are read under the read lock.
+final class PatronIndex {
+
+    private static final TreeMap<Long, Patron> dineInWithoutOrder = new TreeMap<>();
+    private static final TreeMap<Long, Patron> takeoutWithoutOrder = new TreeMap<>();
+    private static final TreeMap<Long, Patron> dineInPending = new TreeMap<>();
+    private static final TreeMap<Long, Patron> takeoutPending = new TreeMap<>();
+
+    private PatronIndex() {
+    }
+
+    // LIFECYCLE: Called when a patron joins a queue, orders, and leaves the queue on payment
+    static void add(Patron patron) {
+        TreeMap<Long, Patron> index = indexFor(patron);
+        if (index != null) {
+            index.put(patron.getQueuePosition(), patron);
+        }
+    }
+
+    static void remove(Patron patron) {
+        TreeMap<Long, Patron> index = indexFor(patron);
+        if (index != null) {
+            index.remove(patron.getQueuePosition());
+        }
+    }
+
+    static void clear() {
+        dineInWithoutOrder.clear();
+        takeoutWithoutOrder.clear();
+        dineInPending.clear();
+        takeoutPending.clear();
+    }
+
+    // COUNTS
+    static int dineInWithoutOrderCount() {
+        return dineInWithoutOrder.size();
+    }
+
+    static int takeoutWithoutOrderCount() {
+        return takeoutWithoutOrder.size();
+    }
+
+    static int dineInPendingCount() {
+        return dineInPending.size();
+    }
+
+    static int takeoutPendingCount() {
+        return takeoutPending.size();
+    }
+
+    // LISTS: Live views in queue order, copied by the caller
+    static Collection<Patron> dineInWithoutOrder() {
+        return dineInWithoutOrder.values();
+    }
+
+    static Collection<Patron> takeoutWithoutOrder() {
+        return takeoutWithoutOrder.values();
+    }
+
+    static Collection<Patron> dineInPending() {
+        return dineInPending.values();
+    }
+
+    // HELPER METHODS
+    // Service type 0 is the takeout queue and anything else the dine-in queue; only
+    // types 0 and 1 count as pending, as in the pending-order counts
+    private static TreeMap<Long, Patron> indexFor(Patron patron) {
+        boolean takeout = patron.getServiceType() == 0;
+        if (patron.getOrder() == null)
+            return takeout ? takeoutWithoutOrder : dineInWithoutOrder;
+        if (takeout)
+            return takeoutPending;
+        return patron.getServiceType() == 1 ? dineInPending : null;
+    }
+}
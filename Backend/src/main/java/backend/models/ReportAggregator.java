@@ -0,0 +1,147 @@
+package backend.models;
+
+import java.util.*;
+
+public class ReportAggregator {
+
+    // Running totals for the day, updated once per payment
+    private static int totalOrders = 0;
+    private static int dineInOrders = 0;
+    private static int takeoutOrders = 0;
+    private static long totalRevenueCents = 0;
+    private static long dineInRevenueCents = 0;
+    private static long takeoutRevenueCents = 0;
+
+    // Per menu item totals, kept in the order items were first sold
+    private static Map<Order.MenuItem, ItemTotals> itemTotals = new LinkedHashMap<>();
+
+    // Orders paid since the last day rollover, handed to the archiver when the day closes
+    private static List<Order> paidOrders = new ArrayList<>();
+
+    // PAYMENT RECORDING: Fold a paid order into the running totals
+    public static synchronized void recordPayment(Order order, boolean isDineIn) {
+        long amountCents = order.getTotalCents();
+
+        paidOrders.add(order);
+        totalOrders++;
+        totalRevenueCents += amountCents;
+        if (isDineIn) {
+            dineInOrders++;
+            dineInRevenueCents += amountCents;
+        } else {
+            takeoutOrders++;
+            takeoutRevenueCents += amountCents;
+        }
+
+        OrderLines lines = order.getLines();
+        for (int line = 0; line < lines.size(); line++) {
+            Order.MenuItem item = lines.menuItemAt(line);
+            int quantity = lines.quantityAt(line);
+            ItemTotals totals = itemTotals.get(item);
+            if (totals == null) {
+                totals = new ItemTotals(item.getName(), item.getCategory(), item.getPriceCents());
+                itemTotals.put(item, totals);
+            }
+            totals.quantitySold += quantity;
+            totals.revenueCents += item.getPriceCents() * quantity;
+        }
+
+        // Per waiter totals live on the waiter itself
+        Waiter waiter = Waiter.findWaiterByStaffId(order.getWaiterStaffId());
+        if (waiter != null) {
+            waiter.addOrderItem(amountCents, isDineIn);
+        }
+
+        RollingStats.recordPayment(order, isDineIn);
+        OrderHistory.append(order);
+    }
+
+    // DAY ROLLOVER: Hand over the day's paid orders and start a fresh set of totals
+    public static synchronized List<Order> closeDay() {
+        List<Order> closed = paidOrders;
+        paidOrders = new ArrayList<>();
+
+        Waiter current = Waiter.head;
+        if (current != null) {
+            do {
+                current.resetDailyStats();
+                current = current.nextWaiter;
+            } while (current != Waiter.head);
+        }
+
+        totalOrders = 0;
+        dineInOrders = 0;
+        takeoutOrders = 0;
+        totalRevenueCents = 0;
+        dineInRevenueCents = 0;
+        takeoutRevenueCents = 0;
+        itemTotals.clear();
+        OrderHistory.clear();
+        return closed;
+    }
+
+    // REPORT DATA: Copy the running totals into a daily report
+    public static synchronized void fillDailyReport(Reports.DailyReport report) {
+        report.setTotalOrders(totalOrders);
+        report.setTotalRevenueCents(totalRevenueCents);
+        report.setTotalRevenue(Money.toRands(totalRevenueCents));
+        report.setAverageOrderValue(Money.toRands(Money.average(totalRevenueCents, totalOrders)));
+        report.setDineInOrders(dineInOrders);
+        report.setTakeoutOrders(takeoutOrders);
+        report.setDineInRate(Money.percentage(dineInOrders, totalOrders));
+        report.setDineInRevenue(Money.toRands(dineInRevenueCents));
+        report.setTakeoutRevenue(Money.toRands(takeoutRevenueCents));
+    }
+
+    // REPORT DATA: Build menu item reports from the per item totals
+    public static synchronized List<Reports.MenuItemReport> getMenuItemReports() {
+        List<Reports.MenuItemReport> reports = new ArrayList<>(itemTotals.size());
+        for (ItemTotals totals : itemTotals.values()) {
+            reports.add(new Reports.MenuItemReport(
+                    totals.name,
+                    totals.category,
+                    totals.quantitySold,
+                    Money.toRands(totals.revenueCents),
+                    Money.toRands(totals.priceCents)));
+        }
+        return reports;
+    }
+
+    // SNAPSHOT SUPPORT: Orders paid since the last rollover, in payment order
+    static synchronized List<Order> paidOrders() {
+        return new ArrayList<>(paidOrders);
+    }
+
+    // REPORT DATA: The day's order counts and revenue shown on the dashboard
+    public static synchronized Map<String, Object> getDayTotals() {
+        Map<String, Object> totals = new HashMap<>();
+        totals.put("totalOrders", totalOrders);
+        totals.put("dineInOrders", dineInOrders);
+        totals.put("takeoutOrders", takeoutOrders);
+        totals.put("totalRevenue", Money.toRands(totalRevenueCents));
+        return totals;
+    }
+
+    public static synchronized int getTotalOrders() {
+        return totalOrders;
+    }
+
+    public static synchronized long getTotalRevenueCents() {
+        return totalRevenueCents;
+    }
+
+    // INNER CLASSES
+    private static class ItemTotals {
+        private final String name;
+        private final String category;
+        private final long priceCents;
+        private int quantitySold;
+        private long revenueCents;
+
+        ItemTotals(String name, String category, long priceCents) {
+            this.name = name;
+            this.category = category;
+            this.priceCents = priceCents;
+        }
+    }
+}
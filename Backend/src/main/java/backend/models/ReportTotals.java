@@ -0,0 +1,161 @@
+package backend.models;
+
+import java.util.*;
+
+// Mergeable report accumulator for archived orders. Each instance folds in
+// orders one at a time, partial results can be combined with merge().
+public class ReportTotals {
+    private int totalOrders;
+    private int dineInOrders;
+    private int takeoutOrders;
+    private long totalRevenueCents;
+    private long dineInRevenueCents;
+    private long takeoutRevenueCents;
+
+    private final Map<String, ItemTotals> itemTotals = new LinkedHashMap<>();
+    private final Map<String, WaiterTotals> waiterTotals = new LinkedHashMap<>();
+
+    // ACCUMULATION: Fold one archived order into the totals
+    public void add(ArchivedOrder order) {
+        long amountCents = order.getTotalCents();
+        boolean isDineIn = order.getServiceType() == 1;
+
+        totalOrders++;
+        totalRevenueCents += amountCents;
+        if (isDineIn) {
+            dineInOrders++;
+            dineInRevenueCents += amountCents;
+        } else {
+            takeoutOrders++;
+            takeoutRevenueCents += amountCents;
+        }
+
+        for (int line = 0; line < order.getLineCount(); line++) {
+            String name = order.getItemName(line);
+            ItemTotals totals = itemTotals.get(name);
+            if (totals == null) {
+                totals = new ItemTotals(name, order.getItemCategory(line), order.getPriceCents(line));
+                itemTotals.put(name, totals);
+            }
+            totals.quantitySold += order.getQuantity(line);
+            totals.revenueCents += order.getPriceCents(line) * order.getQuantity(line);
+        }
+
+        if (order.getStaffId() != null) {
+            WaiterTotals totals = waiterTotals.computeIfAbsent(order.getStaffId(), WaiterTotals::new);
+            totals.salesCents += amountCents;
+            if (isDineIn) {
+                totals.dineInOrders++;
+            } else {
+                totals.takeoutOrders++;
+            }
+        }
+    }
+
+    // ACCUMULATION: Combine another partial result into this one
+    public ReportTotals merge(ReportTotals other) {
+        totalOrders += other.totalOrders;
+        dineInOrders += other.dineInOrders;
+        takeoutOrders += other.takeoutOrders;
+        totalRevenueCents += other.totalRevenueCents;
+        dineInRevenueCents += other.dineInRevenueCents;
+        takeoutRevenueCents += other.takeoutRevenueCents;
+
+        for (ItemTotals theirs : other.itemTotals.values()) {
+            ItemTotals ours = itemTotals.get(theirs.name);
+            if (ours == null) {
+                ours = new ItemTotals(theirs.name, theirs.category, theirs.priceCents);
+                itemTotals.put(theirs.name, ours);
+            }
+            ours.quantitySold += theirs.quantitySold;
+            ours.revenueCents += theirs.revenueCents;
+        }
+
+        for (WaiterTotals theirs : other.waiterTotals.values()) {
+            WaiterTotals ours = waiterTotals.computeIfAbsent(theirs.staffId, WaiterTotals::new);
+            ours.dineInOrders += theirs.dineInOrders;
+            ours.takeoutOrders += theirs.takeoutOrders;
+            ours.salesCents += theirs.salesCents;
+        }
+        return this;
+    }
+
+    public int getTotalOrders() {
+        return totalOrders;
+    }
+
+    public long getTotalRevenueCents() {
+        return totalRevenueCents;
+    }
+
+    // REPORT DATA: Convert the totals into a daily report
+    public Reports.DailyReport toDailyReport() {
+        Reports.DailyReport report = new Reports.DailyReport();
+        report.setTotalOrders(totalOrders);
+        report.setTotalRevenueCents(totalRevenueCents);
+        report.setTotalRevenue(Money.toRands(totalRevenueCents));
+        report.setAverageOrderValue(Money.toRands(Money.average(totalRevenueCents, totalOrders)));
+        report.setDineInOrders(dineInOrders);
+        report.setTakeoutOrders(takeoutOrders);
+        report.setDineInRate(Money.percentage(dineInOrders, totalOrders));
+        report.setDineInRevenue(Money.toRands(dineInRevenueCents));
+        report.setTakeoutRevenue(Money.toRands(takeoutRevenueCents));
+
+        List<Reports.WaiterReport> waiterReports = new ArrayList<>(waiterTotals.size());
+        long totalCommissionCents = 0;
+        for (WaiterTotals totals : waiterTotals.values()) {
+            Waiter waiter = Waiter.findWaiterByStaffId(totals.staffId);
+            long commissionCents = Money.percentOf(totals.salesCents, 15);
+            waiterReports.add(new Reports.WaiterReport(
+                    waiter != null ? waiter.getName() : totals.staffId,
+                    totals.staffId,
+                    totals.dineInOrders,
+                    totals.takeoutOrders,
+                    Money.toRands(totals.salesCents),
+                    Money.toRands(commissionCents),
+                    "Archived"));
+            totalCommissionCents += commissionCents;
+        }
+        report.setWaiterReports(waiterReports);
+        report.setTotalCommissionCents(totalCommissionCents);
+
+        List<Reports.MenuItemReport> itemReports = new ArrayList<>(itemTotals.size());
+        for (ItemTotals totals : itemTotals.values()) {
+            itemReports.add(new Reports.MenuItemReport(
+                    totals.name,
+                    totals.category,
+                    totals.quantitySold,
+                    Money.toRands(totals.revenueCents),
+                    Money.toRands(totals.priceCents)));
+        }
+        report.setMenuItemReports(itemReports);
+
+        return report;
+    }
+
+    // INNER CLASSES
+    private static class ItemTotals {
+        private final String name;
+        private final String category;
+        private final long priceCents;
+        private int quantitySold;
+        private long revenueCents;
+
+        ItemTotals(String name, String category, long priceCents) {
+            this.name = name;
+            this.category = category;
+            this.priceCents = priceCents;
+        }
+    }
+
+    private static class WaiterTotals {
+        private final String staffId;
+        private int dineInOrders;
+        private int takeoutOrders;
+        private long salesCents;
+
+        WaiterTotals(String staffId) {
+            this.staffId = staffId;
+        }
+    }
+}
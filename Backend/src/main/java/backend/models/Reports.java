@@ -1,5 +1,8 @@
 package backend.models;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
 
 public class Reports {
@@ -17,6 +20,10 @@ public class Reports {
         private List<WaiterReport> waiterReports;
         private List<MenuItemReport> menuItemReports;
 
+        // Exact cent totals behind the rand values above
+        private long totalRevenueCents;
+        private long totalCommissionCents;
+
         public DailyReport() {
         }
 
@@ -100,6 +107,22 @@ public class Reports {
         public void setMenuItemReports(List<MenuItemReport> menuItemReports) {
             this.menuItemReports = menuItemReports;
         }
+
+        public long getTotalRevenueCents() {
+            return totalRevenueCents;
+        }
+
+        public void setTotalRevenueCents(long totalRevenueCents) {
+            this.totalRevenueCents = totalRevenueCents;
+        }
+
+        public long getTotalCommissionCents() {
+            return totalCommissionCents;
+        }
+
+        public void setTotalCommissionCents(long totalCommissionCents) {
+            this.totalCommissionCents = totalCommissionCents;
+        }
     }
 
     public static class WaiterReport {
@@ -243,103 +266,180 @@ public class Reports {
         }
     }
 
-    // REPORT GENERATION: Generate complete daily report
+    // REPORT GENERATION: Generate complete daily report from the running totals
     public static DailyReport generateDailyReport() {
         DailyReport report = new DailyReport();
 
-        List<WaiterReport> waiterReports = generateWaiterReports();
-        List<Order> paidOrders = getPaidOrders();
-
-        // Calculate business metrics from paid orders
-        int totalDineInOrders = waiterReports.stream().mapToInt(WaiterReport::getDineInOrders).sum();
-        int totalTakeoutOrders = waiterReports.stream().mapToInt(WaiterReport::getTakeoutOrders).sum();
-        double totalRevenue = paidOrders.stream().mapToDouble(Order::getTotalAmount).sum();
-        double dineInRevenue = paidOrders.stream()
-                .filter(order -> order.getTableNumber() > 0)
-                .mapToDouble(Order::getTotalAmount).sum();
-
-        // Set all report data
-        report.setTotalOrders(totalDineInOrders + totalTakeoutOrders);
-        report.setTotalRevenue(totalRevenue);
-        report.setAverageOrderValue(report.getTotalOrders() > 0 ? totalRevenue / report.getTotalOrders() : 0);
-        report.setDineInOrders(totalDineInOrders);
-        report.setTakeoutOrders(totalTakeoutOrders);
-        report.setDineInRate(report.getTotalOrders() > 0 ? (totalDineInOrders * 100.0) / report.getTotalOrders() : 0);
-        report.setDineInRevenue(dineInRevenue);
-        report.setTakeoutRevenue(totalRevenue - dineInRevenue);
-        report.setWaiterReports(waiterReports);
-        report.setMenuItemReports(generateMenuItemReports(paidOrders));
+        ReportAggregator.fillDailyReport(report);
+        report.setWaiterReports(generateWaiterReports(report));
+        report.setMenuItemReports(ReportAggregator.getMenuItemReports());
 
         return report;
     }
 
     // REPORT DATA: Get overview report data
     public static Map<String, Object> getOverviewReport() {
-        DailyReport report = generateDailyReport();
+        return buildOverviewReport(generateDailyReport());
+    }
+
+    // REPORT DATA: Get staff report data
+    public static Map<String, Object> getStaffReport() {
+        return buildStaffReport(generateDailyReport());
+    }
+
+    // REPORT DATA: Get menu report data
+    public static Map<String, Object> getMenuReport() {
+        return buildMenuReport(generateDailyReport());
+    }
+
+    // REPORT DATA: Get finance report data
+    public static Map<String, Object> getFinanceReport() {
+        return buildFinanceReport(generateDailyReport());
+    }
+
+    // REPORT DATA: Get complete daily report for API
+    public static Map<String, Object> getCompleteDailyReport() {
+        return buildCompleteDailyReport(generateDailyReport());
+    }
+
+    // REPORT DATA: All four report sections from one generated report
+    public static Map<String, Object> buildCompleteDailyReport(DailyReport report) {
+        Map<String, Object> response = new HashMap<>();
+
+        response.put("overview", buildOverviewReport(report));
+        response.put("staff", buildStaffReport(report));
+        response.put("menu", buildMenuReport(report));
+        response.put("finance", buildFinanceReport(report));
+
+        return response;
+    }
+
+    // ROLLING REPORTS: Last 15 minutes, last hour and the current shift, from the per-minute buckets
+    public static Map<String, Object> getRollingReport(int shiftHours) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> shift = RollingStats.window(shiftHours * 60, now);
+        shift.put("hours", shiftHours);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("last15Minutes", RollingStats.window(15, now));
+        response.put("lastHour", RollingStats.window(60, now));
+        response.put("shift", shift);
+        return response;
+    }
+
+    // ROLLING REPORTS: Hourly histogram for the last given number of hours
+    public static List<Map<String, Object>> getHourlyReport(int hours) {
+        return RollingStats.hourly(hours, System.currentTimeMillis());
+    }
+
+    // BREAKDOWN REPORTS: Today's revenue by category, waiter and hour, from the columnar history
+    public static Map<String, Object> getBreakdownReport() {
+        double[] byHour = OrderHistory.revenueByHour(ZoneId.systemDefault());
+        List<Map<String, Object>> hours = new ArrayList<>(byHour.length);
+        for (int hour = 0; hour < byHour.length; hour++) {
+            Map<String, Object> bucket = new HashMap<>();
+            bucket.put("hour", hour);
+            bucket.put("revenue", byHour[hour]);
+            hours.add(bucket);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("byCategory", OrderHistory.revenueByCategory());
+        response.put("byWaiter", OrderHistory.revenueByWaiter());
+        response.put("byHour", hours);
+        return response;
+    }
+
+    // ARCHIVE REPORTS: Complete report for an archived business day, read from its segment
+    public static Map<String, Object> getArchivedDailyReport(LocalDate day) throws IOException {
+        ArchivedDay archivedDay = OrderArchive.openDay(day);
+        if (archivedDay == null) {
+            return null;
+        }
+
+        DailyReport report = ParallelReports.aggregate(List.of(archivedDay)).toDailyReport();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("date", day.toString());
+        response.put("overview", buildOverviewReport(report));
+        response.put("staff", buildStaffReport(report));
+        response.put("menu", buildMenuReport(report));
+        response.put("finance", buildFinanceReport(report));
+        return response;
+    }
+
+    // ARCHIVE REPORTS: Combined report for every archived day between two dates, inclusive
+    public static Map<String, Object> getArchivedRangeReport(LocalDate from, LocalDate to) throws IOException {
+        List<ArchivedDay> archivedDays = new ArrayList<>();
+        List<String> dates = new ArrayList<>();
+        for (LocalDate day : OrderArchive.archivedDays()) {
+            if (day.isBefore(from) || day.isAfter(to))
+                continue;
+            ArchivedDay archivedDay = OrderArchive.openDay(day);
+            if (archivedDay != null) {
+                archivedDays.add(archivedDay);
+                dates.add(day.toString());
+            }
+        }
+
+        DailyReport report = ParallelReports.aggregate(archivedDays).toDailyReport();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("from", from.toString());
+        response.put("to", to.toString());
+        response.put("days", dates);
+        response.put("overview", buildOverviewReport(report));
+        response.put("staff", buildStaffReport(report));
+        response.put("menu", buildMenuReport(report));
+        response.put("finance", buildFinanceReport(report));
+        return response;
+    }
+
+    // HELPER METHODS
+    private static Map<String, Object> buildOverviewReport(DailyReport report) {
         Map<String, Object> overview = new HashMap<>();
 
+        // Values are already exact to the cent, no rounding needed
         overview.put("totalOrders", report.getTotalOrders());
-        overview.put("totalRevenue", Math.round(report.getTotalRevenue() * 100.0) / 100.0);
-        overview.put("averageOrderValue", Math.round(report.getAverageOrderValue() * 100.0) / 100.0);
-        overview.put("dineInRate", Math.round(report.getDineInRate() * 100.0) / 100.0);
+        overview.put("totalRevenue", report.getTotalRevenue());
+        overview.put("averageOrderValue", report.getAverageOrderValue());
+        overview.put("dineInRate", report.getDineInRate());
         overview.put("dineInOrders", report.getDineInOrders());
         overview.put("takeoutOrders", report.getTakeoutOrders());
-        overview.put("dineInRevenue", Math.round(report.getDineInRevenue() * 100.0) / 100.0);
-        overview.put("takeoutRevenue", Math.round(report.getTakeoutRevenue() * 100.0) / 100.0);
+        overview.put("dineInRevenue", report.getDineInRevenue());
+        overview.put("takeoutRevenue", report.getTakeoutRevenue());
 
         return overview;
     }
 
-    // REPORT DATA: Get staff report data
-    public static Map<String, Object> getStaffReport() {
-        DailyReport report = generateDailyReport();
+    private static Map<String, Object> buildStaffReport(DailyReport report) {
         Map<String, Object> staff = new HashMap<>();
         staff.put("waiters", report.getWaiterReports());
         return staff;
     }
 
-    // REPORT DATA: Get menu report data
-    public static Map<String, Object> getMenuReport() {
-        DailyReport report = generateDailyReport();
+    private static Map<String, Object> buildMenuReport(DailyReport report) {
         Map<String, Object> menu = new HashMap<>();
         menu.put("items", report.getMenuItemReports());
         return menu;
     }
 
-    // REPORT DATA: Get finance report data
-    public static Map<String, Object> getFinanceReport() {
-        DailyReport report = generateDailyReport();
+    private static Map<String, Object> buildFinanceReport(DailyReport report) {
         Map<String, Object> finance = new HashMap<>();
 
-        double totalRevenue = report.getTotalRevenue();
-        double totalCommission = report.getWaiterReports().stream()
-                .mapToDouble(WaiterReport::getCommission)
-                .sum();
-        double netIncome = totalRevenue - totalCommission;
+        long totalRevenueCents = report.getTotalRevenueCents();
+        long totalCommissionCents = report.getTotalCommissionCents();
 
-        finance.put("totalRevenue", Math.round(totalRevenue * 100.0) / 100.0);
-        finance.put("staffSalary", Math.round(totalCommission * 100.0) / 100.0);
-        finance.put("netIncome", Math.round(netIncome * 100.0) / 100.0);
+        finance.put("totalRevenue", Money.toRands(totalRevenueCents));
+        finance.put("staffSalary", Money.toRands(totalCommissionCents));
+        finance.put("netIncome", Money.toRands(totalRevenueCents - totalCommissionCents));
 
         return finance;
     }
 
-    // REPORT DATA: Get complete daily report for API
-    public static Map<String, Object> getCompleteDailyReport() {
-        DailyReport report = generateDailyReport();
-        Map<String, Object> response = new HashMap<>();
-
-        response.put("overview", getOverviewReport());
-        response.put("staff", getStaffReport());
-        response.put("menu", getMenuReport());
-        response.put("finance", getFinanceReport());
-
-        return response;
-    }
-
-    // HELPER METHODS
-    private static List<WaiterReport> generateWaiterReports() {
+    private static List<WaiterReport> generateWaiterReports(DailyReport report) {
         List<WaiterReport> waiterReports = new ArrayList<>();
+        long totalCommissionCents = 0;
         Waiter current = Waiter.head;
 
         if (current != null) {
@@ -353,60 +453,11 @@ public class Reports {
                         current.getTotalCommission(),
                         current.getAssignedDineInCount() < 4 ? "Available" : "Fully Booked");
                 waiterReports.add(wr);
+                totalCommissionCents += current.getTotalCommissionCents();
                 current = current.nextWaiter;
             } while (current != Waiter.head);
         }
+        report.setTotalCommissionCents(totalCommissionCents);
         return waiterReports;
     }
-
-    private static List<MenuItemReport> generateMenuItemReports(List<Order> paidOrders) {
-        Map<String, MenuItemReport> itemMap = new HashMap<>();
-
-        for (Order order : paidOrders) {
-            for (Order.OrderItem item : order.getItems()) {
-                String itemName = item.getName();
-                MenuItemReport report = itemMap.get(itemName);
-
-                if (report == null) {
-                    report = new MenuItemReport();
-                    report.setItemName(itemName);
-                    report.setCategory(item.getCategory());
-                    report.setQuantitySold(0);
-                    report.setRevenue(0);
-                    report.setAveragePrice(item.getPrice());
-                    itemMap.put(itemName, report);
-                }
-
-                report.setQuantitySold(report.getQuantitySold() + item.getQuantity());
-                report.setRevenue(report.getRevenue() + (item.getPrice() * item.getQuantity()));
-            }
-        }
-
-        return new ArrayList<>(itemMap.values());
-    }
-
-    private static List<Order> getPaidOrders() {
-        List<Order> paidOrders = new ArrayList<>();
-        List<Order> allOrders = getAllOrders();
-
-        for (Order order : allOrders) {
-            if (order.isPaid()) {
-                paidOrders.add(order);
-            }
-        }
-        return paidOrders;
-    }
-
-    private static List<Order> getAllOrders() {
-        List<Order> allOrders = new ArrayList<>();
-        Order current = Order.firstOrder;
-
-        while (current != null) {
-            allOrders.add(current);
-            current = current.nextOrder;
-            if (current == Order.firstOrder)
-                break;
-        }
-        return allOrders;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package backend.models;
+
+import java.time.Instant;
+import java.util.*;
+
+// Per-minute activity for the last 24 hours, kept in fixed-size ring buffers.
+//
+// Slot m % MINUTES holds minute m (minutes since the epoch). Each slot
+// remembers which minute it holds, so a slot left over from a day ago is
+// recognised as stale and reset the next time it is written, or skipped
+// when it is read. Recording is O(1) and memory never grows, however long the
+// process runs. Events are filed by their own timestamps, so journal replay
+// and snapshot restore put them back in the minutes they happened.
+public class RollingStats {
+
+    static final int MINUTES = 24 * 60;
+
+    private static final long[] minuteInSlot = new long[MINUTES];
+    private static final int[] ordersPlaced = new int[MINUTES];
+    private static final int[] ordersPaid = new int[MINUTES];
+    private static final long[] revenueCents = new long[MINUTES];
+    private static final int[] itemsSold = new int[MINUTES];
+    private static final int[] tableTurns = new int[MINUTES];
+    // Sum of order-to-payment times, for the average time to pay
+    private static final long[] serviceMillis = new long[MINUTES];
+    private static final int[] timedPayments = new int[MINUTES];
+
+    static {
+        Arrays.fill(minuteInSlot, -1);
+    }
+
+    // RECORDING: Called under the StateLock write lock
+    static synchronized void recordOrderPlaced(Order order) {
+        int slot = slotFor(order.getCreatedAt());
+        if (slot >= 0) {
+            ordersPlaced[slot]++;
+        }
+    }
+
+    static synchronized void recordPayment(Order order, boolean isDineIn) {
+        int slot = slotFor(order.getPaidAt());
+        if (slot < 0)
+            return;
+
+        ordersPaid[slot]++;
+        revenueCents[slot] += order.getTotalCents();
+        itemsSold[slot] += order.getTotalItems();
+        if (isDineIn && order.getTableNumber() != 0) {
+            tableTurns[slot]++;
+        }
+        if (order.getPaidAt() >= order.getCreatedAt()) {
+            serviceMillis[slot] += order.getPaidAt() - order.getCreatedAt();
+            timedPayments[slot]++;
+        }
+    }
+
+    // SNAPSHOT SUPPORT: Forget everything before the model is rebuilt
+    static synchronized void clear() {
+        Arrays.fill(minuteInSlot, -1);
+    }
+
+    // REPORT DATA: Totals over the last given number of minutes, up to 24 hours
+    public static synchronized Map<String, Object> window(int minutes, long now) {
+        long lastMinute = now / 60_000;
+        return totals(lastMinute - Math.min(minutes, MINUTES) + 1, lastMinute);
+    }
+
+    // REPORT DATA: One bucket per clock hour, oldest first, ending with the current hour
+    public static synchronized List<Map<String, Object>> hourly(int hours, long now) {
+        long currentHourStart = now / 60_000 / 60 * 60;
+        int count = Math.min(hours, MINUTES / 60);
+
+        List<Map<String, Object>> histogram = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            long firstMinute = currentHourStart - i * 60L;
+            Map<String, Object> bucket = totals(firstMinute, firstMinute + 59);
+            bucket.put("hourStart", Instant.ofEpochSecond(firstMinute * 60).toString());
+            histogram.add(bucket);
+        }
+        return histogram;
+    }
+
+    // HELPER METHODS
+    // Slot for an event at the given time, reset if it still holds an older minute; -1 if too old to keep
+    private static int slotFor(long timestamp) {
+        if (timestamp <= 0)
+            return -1;
+
+        long minute = timestamp / 60_000;
+        int slot = (int) (minute % MINUTES);
+        long held = minuteInSlot[slot];
+        if (held == minute)
+            return slot;
+        if (held > minute)
+            return -1;
+
+        minuteInSlot[slot] = minute;
+        ordersPlaced[slot] = 0;
+        ordersPaid[slot] = 0;
+        revenueCents[slot] = 0;
+        itemsSold[slot] = 0;
+        tableTurns[slot] = 0;
+        serviceMillis[slot] = 0;
+        timedPayments[slot] = 0;
+        return slot;
+    }
+
+    private static Map<String, Object> totals(long firstMinute, long lastMinute) {
+        int placed = 0;
+        int paid = 0;
+        long revenue = 0;
+        int items = 0;
+        int turns = 0;
+        long service = 0;
+        int timed = 0;
+
+        for (long minute = Math.max(firstMinute, lastMinute - MINUTES + 1); minute <= lastMinute; minute++) {
+            int slot = (int) (minute % MINUTES);
+            if (minuteInSlot[slot] != minute)
+                continue;
+            placed += ordersPlaced[slot];
+            paid += ordersPaid[slot];
+            revenue += revenueCents[slot];
+            items += itemsSold[slot];
+            turns += tableTurns[slot];
+            service += serviceMillis[slot];
+            timed += timedPayments[slot];
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("ordersPlaced", placed);
+        totals.put("ordersPaid", paid);
+        totals.put("revenue", Money.toRands(revenue));
+        totals.put("itemsSold", items);
+        totals.put("tableTurns", turns);
+        totals.put("averageMinutesToPay", timed > 0 ? Math.round(service / (double) timed / 600.0) / 100.0 : 0.0);
+        return totals;
+    }
+}
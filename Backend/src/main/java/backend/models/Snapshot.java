@@ -0,0 +1,651 @@
+package backend.models;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+// Point-in-time image of the whole floor: counters, waiters, tables, queues,
+// orders and the day's paid orders. Taking one holds the StateLock read lock
+// only while the state that can still change is copied (see FloorCopy), so
+// writers pause for that copy alone; encoding the image, the file write and
+// the fsync all happen after the lock is released.
+//
+// Files are named snapshot-<journal seq>.bin and restoring one leaves only the
+// journal records after that sequence to replay. The two newest snapshots are
+// kept so a damaged latest file can fall back to the previous one.
+//
+// Layout (big-endian): int magic, short version, long journalSeq, long takenAt,
+// the sections written by capture(), then int crc32 of everything before it.
+// utf is a short byte length followed by UTF-8 bytes (-1 for null).
+public class Snapshot {
+    private static final Logger LOG = Logger.getLogger(Snapshot.class.getName());
+
+    static final int SNAPSHOT_MAGIC = 0x504F5353; // "POSS"
+    static final short SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOTS_KEPT = 2;
+
+    private static Path directory = Paths.get("data", "snapshots");
+    private static long lastSeq = -1;
+
+    // CONFIGURATION
+    public static synchronized void configure(Path snapshotDirectory) {
+        directory = snapshotDirectory;
+    }
+
+    // SNAPSHOT: Capture the model, write it durably and drop journal segments it replaces
+    public static synchronized long take() throws IOException {
+        long[] seq = new long[1];
+        FloorCopy copy;
+        try {
+            copy = StateLock.read(() -> {
+                try {
+                    seq[0] = Journal.rotate();
+                    return new FloorCopy(seq[0]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // Nothing was journaled since the last snapshot
+        if (Journal.isEnabled() && seq[0] == lastSeq)
+            return seq[0];
+
+        byte[] image = copy.encode();
+
+        Files.createDirectories(directory);
+        Path target = snapshotPath(seq[0]);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(image);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lastSeq = seq[0];
+
+        // Keep the journal back to the oldest retained snapshot so a fallback can still replay
+        List<Path> snapshots = listSnapshots();
+        for (int i = SNAPSHOTS_KEPT; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        List<Path> kept = snapshots.subList(0, Math.min(SNAPSHOTS_KEPT, snapshots.size()));
+        Journal.deleteSegmentsThrough(snapshotSeq(kept.get(kept.size() - 1)));
+        return seq[0];
+    }
+
+    // STARTUP: Restore the newest readable snapshot, returning its journal sequence (0 if none)
+    public static synchronized long restoreLatest() throws IOException {
+        if (!Files.isDirectory(directory))
+            return 0;
+
+        for (Path snapshot : listSnapshots()) {
+            try {
+                long seq = restore(Files.readAllBytes(snapshot));
+                lastSeq = seq;
+                LOG.info("Restored snapshot " + snapshot.getFileName());
+                return seq;
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Skipping unreadable snapshot " + snapshot.getFileName(), e);
+            }
+        }
+        return 0;
+    }
+
+    // RESTORE: Replace the whole model with a snapshot image, returning its journal sequence
+    public static long restore(byte[] image) throws IOException {
+        if (image.length < 26) {
+            throw new IOException("Snapshot is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(image, 0, image.length - 4);
+        ByteBuffer in = ByteBuffer.wrap(image);
+        if ((int) crc.getValue() != in.getInt(image.length - 4)) {
+            throw new IOException("Snapshot failed its checksum");
+        }
+        if (in.getInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a supported snapshot");
+        }
+        if (in.getShort() != SNAPSHOT_VERSION) {
+            throw new IOException("Not a supported snapshot");
+        }
+
+        long seq = in.getLong();
+        in.getLong(); // takenAt
+        try {
+            StateLock.write(() -> {
+                try {
+                    apply(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Snapshot is truncated", e);
+        }
+        return seq;
+    }
+
+    // CAPTURE: Serialise the model into a snapshot image, the caller holds the StateLock read lock
+    public static byte[] capture(long journalSeq) throws IOException {
+        return new FloorCopy(journalSeq).encode();
+    }
+
+    // HELPER METHODS
+    private static void apply(ByteBuffer in) throws IOException {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+        ReportAggregator.closeDay();
+        RollingStats.clear();
+
+        // Counters
+        Patron.clear(in.getInt());
+        int nextOrderId = in.getInt();
+        OrderRegistry.clear(nextOrderId, in.getInt());
+
+        // Menu ordinals from the snapshot mapped onto the current catalog
+        MenuCatalog catalog = MenuCatalog.current();
+        int[] ordinals = new int[Short.toUnsignedInt(in.getShort())];
+        for (int i = 0; i < ordinals.length; i++) {
+            String name = readUtf(in);
+            Order.MenuItem item = catalog.findByName(name);
+            if (item == null) {
+                throw new IOException("Snapshot refers to unknown menu item: " + name);
+            }
+            ordinals[i] = item.getOrdinal();
+        }
+
+        // Waiters
+        int waiterCount = in.getShort();
+        for (int i = 0; i < waiterCount; i++) {
+            Waiter waiter = requireWaiter(readUtf(in));
+            waiter.restoreAssignedDineInCount(in.getInt());
+        }
+        String current = readUtf(in);
+        if (current != null) {
+            Waiter.current = requireWaiter(current);
+        }
+
+        // Orders
+        int orderCount = in.getInt();
+        for (int i = 0; i < orderCount; i++) {
+            int orderId = in.getInt();
+            int patronId = in.getInt();
+            String waiterId = readUtf(in);
+            int tableNumber = in.getInt();
+            int serviceType = in.get();
+            boolean paid = in.get() != 0;
+            long createdAt = in.getLong();
+            long paidAt = in.getLong();
+            long totalCents = in.getLong();
+            int totalItems = in.getInt();
+
+            OrderLines lines = new OrderLines(catalog);
+            int lineCount = Short.toUnsignedInt(in.getShort());
+            for (int line = 0; line < lineCount; line++) {
+                int ordinal = ordinals[Short.toUnsignedInt(in.getShort())];
+                lines.restoreLine(ordinal, in.getInt(), in.getInt());
+            }
+
+            Order order = new Order(orderId, patronId, waiterId, tableNumber, serviceType, lines, totalCents,
+                    totalItems, paid, createdAt, paidAt);
+            OrderRegistry.register(order);
+            RollingStats.recordOrderPlaced(order);
+            if (paid) {
+                OrderRegistry.markClosed(order);
+            }
+        }
+
+        // Patrons
+        int patronCount = in.getInt();
+        for (int i = 0; i < patronCount; i++) {
+            int id = in.getInt();
+            String name = readUtf(in);
+            int groupSize = in.getInt();
+            int serviceType = in.get();
+            int tableId = in.getInt();
+            String staffId = readUtf(in);
+            int orderId = in.getInt();
+
+            Patron patron = Patron.restore(id, name, groupSize, serviceType, tableId,
+                    staffId != null ? requireWaiter(staffId) : null);
+            if (orderId != 0) {
+                patron.setOrder(requireOrder(orderId));
+            }
+        }
+        Patron.restoreQueue(readPatrons(in), true);
+        Patron.restoreQueue(readPatrons(in), false);
+
+        // Tables
+        int tableCount = in.getShort();
+        for (int i = 0; i < tableCount; i++) {
+            TableManager.Table table = requireTable(in.getInt());
+            int patronId = in.getInt();
+            table.restorePatron(patronId != 0 ? requirePatron(patronId) : null);
+        }
+        int sizeCount = in.getShort();
+        for (int i = 0; i < sizeCount; i++) {
+            int tableSize = in.getInt();
+            List<TableManager.Table> queue = new ArrayList<>();
+            int queued = in.getShort();
+            for (int j = 0; j < queued; j++) {
+                queue.add(requireTable(in.getInt()));
+            }
+            TableManager.restoreAvailableQueue(tableSize, queue);
+        }
+
+        // Paid orders, replayed into the report and waiter totals
+        for (Order order : readOrders(in)) {
+            ReportAggregator.recordPayment(order, order.getServiceType() == 1);
+        }
+
+        // Pending archive days
+        Map<LocalDate, List<Order>> pending = new TreeMap<>();
+        int dayCount = in.getShort();
+        for (int i = 0; i < dayCount; i++) {
+            LocalDate day = LocalDate.ofEpochDay(in.getLong());
+            pending.put(day, readOrders(in));
+        }
+        OrderArchive.restorePendingDays(pending);
+    }
+
+    private static int remap(MenuCatalog catalog, Order.MenuItem item) throws IOException {
+        Order.MenuItem current = catalog.findByName(item.getName());
+        if (current == null) {
+            throw new IOException("Open order refers to an item no longer on the menu: " + item.getName());
+        }
+        return current.getOrdinal();
+    }
+
+    private static void writeOrder(ImageWriter out, Order order, MenuCatalog catalog) throws IOException {
+        out.writeInt(order.getOrderId());
+        out.writeInt(order.getPatronId());
+        writeUtf(out, order.getWaiterStaffId());
+        out.writeInt(order.getTableNumber());
+        out.writeByte(order.getServiceType());
+        out.writeBoolean(order.isPaid());
+        out.writeLong(order.getCreatedAt());
+        out.writeLong(order.getPaidAt());
+        out.writeLong(order.getTotalCents());
+        out.writeInt(order.getTotalItems());
+
+        OrderLines lines = order.getLines();
+        out.writeShort(lines.size());
+        for (int line = 0; line < lines.size(); line++) {
+            int ordinal = lines.ordinalAt(line);
+            if (lines.getCatalog() != catalog) {
+                ordinal = remap(catalog, lines.menuItemAt(line));
+            }
+            out.writeShort(ordinal);
+            out.writeInt(lines.quantityAt(line));
+            out.writeInt(lines.itemIdAt(line));
+        }
+    }
+
+    private static int[] queueIds(Patron first) {
+        int count = 0;
+        for (Patron p = first; p != null; p = p.next) {
+            count++;
+        }
+        int[] ids = new int[count];
+        int i = 0;
+        for (Patron p = first; p != null; p = p.next) {
+            ids[i++] = p.getId();
+        }
+        return ids;
+    }
+
+    private static void writeIds(ImageWriter out, int[] ids) {
+        out.writeInt(ids.length);
+        for (int id : ids) {
+            out.writeInt(id);
+        }
+    }
+
+    private static void writeOrderIds(ImageWriter out, List<Order> orders) {
+        out.writeInt(orders.size());
+        for (Order order : orders) {
+            out.writeInt(order.getOrderId());
+        }
+    }
+
+    private static List<Patron> readPatrons(ByteBuffer in) throws IOException {
+        int count = in.getInt();
+        List<Patron> patrons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            patrons.add(requirePatron(in.getInt()));
+        }
+        return patrons;
+    }
+
+    private static List<Order> readOrders(ByteBuffer in) throws IOException {
+        int count = in.getInt();
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(requireOrder(in.getInt()));
+        }
+        return orders;
+    }
+
+    private static Waiter requireWaiter(String staffId) throws IOException {
+        Waiter waiter = Waiter.findWaiterByStaffId(staffId);
+        if (waiter == null) {
+            throw new IOException("Snapshot refers to unknown waiter: " + staffId);
+        }
+        return waiter;
+    }
+
+    private static Order requireOrder(int orderId) throws IOException {
+        Order order = OrderRegistry.findById(orderId);
+        if (order == null) {
+            throw new IOException("Snapshot refers to unknown order: " + orderId);
+        }
+        return order;
+    }
+
+    private static Patron requirePatron(int patronId) throws IOException {
+        Patron patron = Patron.findById(patronId);
+        if (patron == null) {
+            throw new IOException("Snapshot refers to unknown patron: " + patronId);
+        }
+        return patron;
+    }
+
+    private static TableManager.Table requireTable(int tableNumber) throws IOException {
+        TableManager.Table table = TableManager.getTableByNumber(tableNumber);
+        if (table == null) {
+            throw new IOException("Snapshot refers to unknown table: " + tableNumber);
+        }
+        return table;
+    }
+
+    private static void writeUtf(ImageWriter out, String value) {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readUtf(ByteBuffer in) {
+        int length = in.getShort();
+        if (length < 0)
+            return null;
+
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    // INNER CLASSES
+    // What an image needs from the model, copied under the read lock. Paid orders
+    // never change again, so they are kept by reference and encoded later; open
+    // orders are encoded on the spot, and of each patron only the fields that can
+    // still change are copied. encode() then needs no lock.
+    private static final class FloorCopy {
+        private final long journalSeq;
+        private final int nextPatronId;
+        private final int nextOrderId;
+        private final int nextItemId;
+        private final MenuCatalog catalog;
+
+        private final String[] waiterIds;
+        private final int[] waiterLoads;
+        private final String currentWaiterId;
+
+        // Orders in creation order; openOrders holds the encoded record of each unpaid one
+        private final Order[] orders;
+        private final byte[][] openOrders;
+
+        private final Patron[] patrons;
+        private final int[] patronTables;
+        private final String[] patronWaiters;
+        private final int[] patronOrders;
+        private final int[] dineInQueue;
+        private final int[] takeoutQueue;
+
+        private final int[] tableNumbers;
+        private final int[] tablePatrons;
+        private final Map<Integer, int[]> availableTables = new LinkedHashMap<>();
+
+        private final List<Order> paidOrders;
+        private final Map<LocalDate, List<Order>> pendingDays = new TreeMap<>();
+
+        FloorCopy(long journalSeq) throws IOException {
+            this.journalSeq = journalSeq;
+            nextPatronId = Patron.peekNextId();
+            nextOrderId = OrderRegistry.peekNextOrderId();
+            nextItemId = OrderRegistry.peekNextItemId();
+            catalog = MenuCatalog.current();
+
+            // Waiters in ring order and the round-robin cursor
+            waiterIds = new String[Waiter.getWaiterCount()];
+            waiterLoads = new int[waiterIds.length];
+            Waiter waiter = Waiter.head;
+            for (int i = 0; i < waiterIds.length; i++) {
+                waiterIds[i] = waiter.getStaffId();
+                waiterLoads[i] = waiter.getAssignedDineInCount();
+                waiter = waiter.nextWaiter;
+            }
+            currentWaiterId = Waiter.current != null ? Waiter.current.getStaffId() : null;
+
+            orders = OrderRegistry.orders().toArray(new Order[0]);
+            openOrders = new byte[orders.length][];
+            ImageWriter record = new ImageWriter(256);
+            for (int i = 0; i < orders.length; i++) {
+                if (!orders[i].isPaid()) {
+                    record.size = 0;
+                    writeOrder(record, orders[i], catalog);
+                    openOrders[i] = Arrays.copyOf(record.buffer, record.size);
+                }
+            }
+
+            patrons = Patron.allPatrons().toArray(new Patron[0]);
+            patronTables = new int[patrons.length];
+            patronWaiters = new String[patrons.length];
+            patronOrders = new int[patrons.length];
+            for (int i = 0; i < patrons.length; i++) {
+                Patron patron = patrons[i];
+                patronTables[i] = patron.getTableId();
+                patronWaiters[i] = patron.getWaiter() != null ? patron.getWaiter().getStaffId() : null;
+                patronOrders[i] = patron.getOrder() != null ? patron.getOrder().getOrderId() : 0;
+            }
+            dineInQueue = queueIds(Patron.firstDineIn);
+            takeoutQueue = queueIds(Patron.firstTakeout);
+
+            // Tables and the order free tables are handed out in
+            List<TableManager.Table> tables = TableManager.getAllTables();
+            tableNumbers = new int[tables.size()];
+            tablePatrons = new int[tables.size()];
+            for (int i = 0; i < tableNumbers.length; i++) {
+                TableManager.Table table = tables.get(i);
+                tableNumbers[i] = table.getTableNumber();
+                tablePatrons[i] = table.isOccupied() && table.getPatron() != null ? table.getPatron().getId() : 0;
+            }
+            for (Map.Entry<Integer, Queue<TableManager.Table>> entry : TableManager.availableQueues().entrySet()) {
+                int[] numbers = new int[entry.getValue().size()];
+                int i = 0;
+                for (TableManager.Table table : entry.getValue()) {
+                    numbers[i++] = table.getTableNumber();
+                }
+                availableTables.put(entry.getKey(), numbers);
+            }
+
+            paidOrders = ReportAggregator.paidOrders();
+            for (Map.Entry<LocalDate, List<Order>> entry : OrderArchive.pendingDays().entrySet()) {
+                pendingDays.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+        }
+
+        byte[] encode() throws IOException {
+            ImageWriter out = new ImageWriter(64 * 1024 + orders.length * 64 + patrons.length * 32);
+
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeShort(SNAPSHOT_VERSION);
+            out.writeLong(journalSeq);
+            out.writeLong(System.currentTimeMillis());
+
+            // Counters
+            out.writeInt(nextPatronId);
+            out.writeInt(nextOrderId);
+            out.writeInt(nextItemId);
+
+            // Menu names by ordinal, so lines can be remapped if the menu changes between runs
+            out.writeShort(catalog.size());
+            for (Order.MenuItem item : catalog.getItems()) {
+                writeUtf(out, item.getName());
+            }
+
+            out.writeShort(waiterIds.length);
+            for (int i = 0; i < waiterIds.length; i++) {
+                writeUtf(out, waiterIds[i]);
+                out.writeInt(waiterLoads[i]);
+            }
+            writeUtf(out, currentWaiterId);
+
+            out.writeInt(orders.length);
+            for (int i = 0; i < orders.length; i++) {
+                if (openOrders[i] != null) {
+                    out.write(openOrders[i]);
+                } else {
+                    writeOrder(out, orders[i], catalog);
+                }
+            }
+
+            // Patrons and their links to waiters, tables and orders
+            out.writeInt(patrons.length);
+            for (int i = 0; i < patrons.length; i++) {
+                Patron patron = patrons[i];
+                out.writeInt(patron.getId());
+                writeUtf(out, patron.getName());
+                out.writeInt(patron.getGroupSize());
+                out.writeByte(patron.getServiceType());
+                out.writeInt(patronTables[i]);
+                writeUtf(out, patronWaiters[i]);
+                out.writeInt(patronOrders[i]);
+            }
+            writeIds(out, dineInQueue);
+            writeIds(out, takeoutQueue);
+
+            out.writeShort(tableNumbers.length);
+            for (int i = 0; i < tableNumbers.length; i++) {
+                out.writeInt(tableNumbers[i]);
+                out.writeInt(tablePatrons[i]);
+            }
+            out.writeShort(availableTables.size());
+            for (Map.Entry<Integer, int[]> entry : availableTables.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeShort(entry.getValue().length);
+                for (int number : entry.getValue()) {
+                    out.writeInt(number);
+                }
+            }
+
+            // Paid orders since the last rollover; report and waiter totals are rebuilt from them
+            writeOrderIds(out, paidOrders);
+
+            // Days whose archive write is still waiting for a retry
+            out.writeShort(pendingDays.size());
+            for (Map.Entry<LocalDate, List<Order>> entry : pendingDays.entrySet()) {
+                out.writeLong(entry.getKey().toEpochDay());
+                writeOrderIds(out, entry.getValue());
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(out.buffer, 0, out.size);
+            out.writeInt((int) crc.getValue());
+            return Arrays.copyOf(out.buffer, out.size);
+        }
+    }
+
+    // Unsynchronised big-endian writer; a DataOutputStream over a ByteArrayOutputStream
+    // takes a lock per call, which adds up over millions of fields
+    private static final class ImageWriter {
+        private byte[] buffer;
+        private ByteBuffer view;
+        private int size;
+
+        ImageWriter(int capacity) {
+            buffer = new byte[capacity];
+            view = ByteBuffer.wrap(buffer);
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeBoolean(boolean value) {
+            writeByte(value ? 1 : 0);
+        }
+
+        void writeShort(int value) {
+            ensure(2);
+            view.putShort(size, (short) value);
+            size += 2;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            view.putInt(size, value);
+            size += 4;
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            view.putLong(size, value);
+            size += 8;
+        }
+
+        void write(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+                view = ByteBuffer.wrap(buffer);
+            }
+        }
+    }
+
+    private static Path snapshotPath(long seq) {
+        return directory.resolve(String.format("snapshot-%020d.bin", seq));
+    }
+
+    private static long snapshotSeq(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring("snapshot-".length(), name.length() - ".bin".length()));
+    }
+
+    // Snapshots newest first
+    private static List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "snapshot-*.bin")) {
+            for (Path path : stream) {
+                snapshots.add(path);
+            }
+        }
+        snapshots.sort(Comparator.comparingLong(Snapshot::snapshotSeq).reversed());
+        return snapshots;
+    }
+}
@@ -0,0 +1,105 @@
+package backend.models;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Global lock around floor-state mutations. A mutation and its journal record
+// are applied under the write lock so the journal order always matches the
+// order the model saw. Durability is awaited after the lock is released, so
+// concurrent writers share a single fsync (group commit). Every model mutation
+// goes through write() and every multi-structure read through read(), which is
+// what makes the static model safe under concurrent requests, including with
+// spring.threads.virtual.enabled: j.u.c locks park a virtual thread without
+// pinning its carrier, so nothing blocking here may move to a monitor.
+// With the CommandPipeline running, write() submits to its single writer
+// thread instead, which applies queued mutations in batches.
+public final class StateLock {
+    private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
+
+    // Bumped by every completed write; only ever written under the write lock
+    private static volatile long epoch = 0;
+
+    private StateLock() {
+    }
+
+    // MUTATION: Run a state change under the write lock, then wait for its journal records
+    public static <T> T write(Supplier<T> mutation) {
+        // Single-writer mode: hand it to the writer thread unless this already is the writer
+        if (CommandPipeline.isRunning() && !CommandPipeline.isWriterThread()
+                && !LOCK.isWriteLockedByCurrentThread()) {
+            return submitToWriter(mutation);
+        }
+
+        T result;
+        long start = System.nanoTime();
+        LOCK.writeLock().lock();
+        if (LOCK.getWriteHoldCount() == 1) {
+            Metrics.WRITE_LOCK_WAIT.recordSince(start);
+        }
+        try {
+            // Refused before it applies, rather than applied and then reported as failed
+            if (LOCK.getWriteHoldCount() == 1) {
+                Journal.checkWritable();
+            }
+            result = mutation.get();
+        } finally {
+            try {
+                // Publish the outermost write's changes while their order is still fixed
+                if (LOCK.getWriteHoldCount() == 1) {
+                    epoch++;
+                    FloorEvents.commit();
+                }
+            } finally {
+                LOCK.writeLock().unlock();
+            }
+        }
+
+        if (LOCK.getWriteHoldCount() == 0) {
+            long waitStart = System.nanoTime();
+            Journal.awaitDurable();
+            if (Journal.isEnabled()) {
+                Metrics.JOURNAL_WAIT.recordSince(waitStart);
+            }
+        }
+        return result;
+    }
+
+    private static <T> T submitToWriter(Supplier<T> mutation) {
+        long start = System.nanoTime();
+        try {
+            return CommandPipeline.submit(mutation).join();
+        } catch (CompletionException e) {
+            // Rethrow what the mutation threw, as it would have been on this thread
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            if (e.getCause() instanceof Error cause)
+                throw cause;
+            throw e;
+        } finally {
+            Metrics.PIPELINE_WAIT.recordSince(start);
+        }
+    }
+
+    public static void write(Runnable mutation) {
+        write(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    // EPOCH: Changes whenever the model may have changed, stable while the read lock is held
+    public static long epoch() {
+        return epoch;
+    }
+
+    // READ: Run a read that needs a consistent view across several structures
+    public static <T> T read(Supplier<T> reader) {
+        LOCK.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+}
@@ -40,6 +40,7 @@ public class TableManager {
             this.patron = p;
             this.occupied = true;
             TableManager.removeFromAvailableQueues(this);
+            FloorEvents.tableChanged(this);
         }
 
         // TABLE RELEASE: Free table when patron leaves
@@ -47,9 +48,16 @@ public class TableManager {
             this.patron = null;
             this.occupied = false;
             TableManager.addToAvailableQueues(this);
+            FloorEvents.tableChanged(this);
             Patron.handleDineInQueue();
         }
 
+        // SNAPSHOT SUPPORT: Seat a patron without touching the available queues
+        void restorePatron(Patron p) {
+            this.patron = p;
+            this.occupied = p != null;
+        }
+
         // TABLE ASSIGNMENT: Assign patron (alias method)
         public void assignToPatron(Patron patron) {
             assignPatron(patron);
@@ -61,6 +69,9 @@ public class TableManager {
         }
     }
 
+    // Table sizes on the floor, smallest first; a group gets the smallest size that fits it
+    static final int[] TABLE_SIZES = { 2, 4, 6, 8 };
+
     // Table management data structures
     private static Map<Integer, Queue<Table>> availableTablesBySize = new HashMap<>();
     private static Map<Integer, Table> allTablesMap = new HashMap<>();
@@ -88,20 +99,40 @@ public class TableManager {
         }
     }
 
+    // SNAPSHOT SUPPORT: Available queues in the order tables will be handed out
+    static Map<Integer, Queue<Table>> availableQueues() {
+        return availableTablesBySize;
+    }
+
+    static void restoreAvailableQueue(int tableSize, List<Table> tables) {
+        availableTablesBySize.put(tableSize, new LinkedList<>(tables));
+    }
+
     // TABLE ASSIGNMENT: Get available table for group size
     public static Table getAvailableTable(int groupSize) {
-        Integer[] possibleSizes = { 2, 4, 6, 8 };
+        long start = System.nanoTime();
 
         // Find smallest table that fits the group
-        for (int size : possibleSizes) {
+        Table found = null;
+        for (int size : TABLE_SIZES) {
             if (size >= groupSize) {
-                Table table = getAvailableTableOfSize(size);
-                if (table != null) {
-                    return table;
+                found = getAvailableTableOfSize(size);
+                if (found != null) {
+                    break;
                 }
             }
         }
-        return null;
+        Metrics.TABLE_LOOKUP.recordSince(start);
+        return found;
+    }
+
+    // TABLE SIZES: Index in TABLE_SIZES of the smallest table that fits the group, -1 if none does
+    static int sizeClassOf(int groupSize) {
+        for (int sizeClass = 0; sizeClass < TABLE_SIZES.length; sizeClass++) {
+            if (TABLE_SIZES[sizeClass] >= groupSize)
+                return sizeClass;
+        }
+        return -1;
     }
 
     // TABLE ASSIGNMENT: Find table by size (alias method)
@@ -124,23 +155,27 @@ public class TableManager {
         List<Map<String, Object>> tablesData = new ArrayList<>();
 
         for (Table table : allTablesList) {
-            Map<String, Object> tableData = new HashMap<>();
-            tableData.put("tableNumber", table.getTableNumber());
-            tableData.put("tableSize", table.getTableSize());
-            tableData.put("occupied", table.isOccupied());
-
-            // Add patron info if table is occupied
-            if (table.isOccupied() && table.getPatron() != null) {
-                tableData.put("patron", Map.of("id", table.getPatron().getId()));
-            } else {
-                tableData.put("patron", null);
-            }
-
-            tablesData.add(tableData);
+            tablesData.add(tableDetails(table));
         }
         return tablesData;
     }
 
+    // TABLE STATUS: One table as returned by the API
+    public static Map<String, Object> tableDetails(Table table) {
+        Map<String, Object> tableData = new HashMap<>();
+        tableData.put("tableNumber", table.getTableNumber());
+        tableData.put("tableSize", table.getTableSize());
+        tableData.put("occupied", table.isOccupied());
+
+        // Add patron info if table is occupied
+        if (table.isOccupied() && table.getPatron() != null) {
+            tableData.put("patron", Map.of("id", table.getPatron().getId()));
+        } else {
+            tableData.put("patron", null);
+        }
+        return tableData;
+    }
+
     // TABLE STATUS: Get table status summary
     public static Map<String, Object> getTableStatus() {
         Map<String, Object> status = new HashMap<>();
@@ -192,9 +227,7 @@ public class TableManager {
 
     // TABLE CAPACITY: Check if table available for group
     public static boolean hasAvailableTableForGroup(int groupSize) {
-        Integer[] possibleSizes = { 2, 4, 6, 8 };
-
-        for (int size : possibleSizes) {
+        for (int size : TABLE_SIZES) {
             if (size >= groupSize) {
                 Queue<Table> queue = availableTablesBySize.get(size);
                 if (queue != null && !queue.isEmpty()) {
@@ -216,9 +249,7 @@ public class TableManager {
 
     // TABLE FINDING: Find next available table size
     public static Integer findNextAvailableSize(int groupSize) {
-        Integer[] possibleSizes = { 2, 4, 6, 8 };
-
-        for (int size : possibleSizes) {
+        for (int size : TABLE_SIZES) {
             if (size >= groupSize) {
                 Queue<Table> queue = availableTablesBySize.get(size);
                 if (queue != null && !queue.isEmpty()) {
@@ -5,8 +5,7 @@ import java.util.*;
 public class Waiter {
     private String name;
     private String staffId;
-    private double totalSales = 0;
-    private double totalCommission = 0;
+    private long totalSalesCents = 0;
     private int dineInCount = 0;
     private int takeOutCount = 0;
     private int assignedDineInCount = 0;
@@ -121,11 +120,20 @@ public class Waiter {
     }
 
     public double getTotalSales() {
-        return totalSales;
+        return Money.toRands(totalSalesCents);
     }
 
     public double getTotalCommission() {
-        return totalCommission;
+        return Money.toRands(getTotalCommissionCents());
+    }
+
+    public long getTotalSalesCents() {
+        return totalSalesCents;
+    }
+
+    // Commission is 15% of sales, derived on read so it never drifts from the sales total
+    public long getTotalCommissionCents() {
+        return Money.percentOf(totalSalesCents, 15);
     }
 
     // Get available waiter for dine-in with round-robin
@@ -171,6 +179,12 @@ public class Waiter {
         return waitersMap.get(staffId);
     }
 
+    // Restore the number of open dine-in tables from a snapshot
+
+    void restoreAssignedDineInCount(int count) {
+        this.assignedDineInCount = count;
+    }
+
     // Release dine-in slot
 
     public void releaseDineInSlot() {
@@ -193,9 +207,8 @@ public class Waiter {
 
     // Add order item and update statistics
 
-    public void addOrderItem(double amount, boolean isDineIn) {
-        this.totalSales += amount;
-        this.totalCommission = this.totalSales * 0.15;
+    public void addOrderItem(long amountCents, boolean isDineIn) {
+        this.totalSalesCents += amountCents;
 
         if (isDineIn) {
             this.dineInCount++;
@@ -204,6 +217,14 @@ public class Waiter {
         }
     }
 
+    // Clear sales statistics at the end of a business day
+
+    public void resetDailyStats() {
+        this.totalSalesCents = 0;
+        this.dineInCount = 0;
+        this.takeOutCount = 0;
+    }
+
     // Get waiter statistics for API
 
     public static List<WaiterStats> getWaiterStats() {
@@ -290,8 +311,8 @@ public class Waiter {
         stats.put("dineInCount", this.dineInCount);
         stats.put("takeOutCount", this.takeOutCount);
         stats.put("assignedDineInCount", this.assignedDineInCount);
-        stats.put("totalSales", this.totalSales);
-        stats.put("totalCommission", this.totalCommission);
+        stats.put("totalSales", getTotalSales());
+        stats.put("totalCommission", getTotalCommission());
         stats.put("availableForDineIn", this.isAvailableForDineIn());
         stats.put("availableForTakeOut", this.isAvailableForTakeOut());
         return stats;
@@ -0,0 +1,141 @@
+package backend.controllers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private static final byte[] BODY = hash("body");
+    private static final byte[] OTHER_BODY = hash("other body");
+
+    @Test
+    void sameBodyReplaysTheStoredResponse() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(600, 100, 1 << 20);
+        IdempotencyCache.Claim first = cache.claim("key", BODY);
+        assertNull(first.getStored());
+        IdempotencyCache.StoredResponse response = response(10);
+        cache.complete(first, response);
+
+        IdempotencyCache.Claim retry = cache.claim("key", BODY);
+        assertSame(response, retry.getStored());
+        assertFalse(retry.isMismatch());
+        assertEquals(1, cache.getStats().get("hits"));
+        assertEquals(1, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void differentBodyIsAMismatch() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(600, 100, 1 << 20);
+        IdempotencyCache.Claim running = cache.claim("key", BODY);
+
+        // Refused while the original is still running and after it has completed
+        assertTrue(cache.claim("key", OTHER_BODY).isMismatch());
+        cache.complete(running, response(10));
+        IdempotencyCache.Claim reused = cache.claim("key", OTHER_BODY);
+        assertTrue(reused.isMismatch());
+        assertNull(reused.getStored());
+        assertEquals(2, cache.getStats().get("mismatches"));
+    }
+
+    @Test
+    void abandonedClaimRunsAgain() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(600, 100, 1 << 20);
+        cache.abandon(cache.claim("key", BODY));
+
+        IdempotencyCache.Claim retry = cache.claim("key", BODY);
+        assertNull(retry.getStored());
+        assertFalse(retry.isMismatch());
+        assertEquals(2, cache.getStats().get("misses"));
+        assertEquals(0, cache.getStats().get("entries"));
+    }
+
+    @Test
+    void retryWaitsForTheRequestInFlight() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(600, 100, 1 << 20);
+        IdempotencyCache.Claim running = cache.claim("completed", BODY);
+        IdempotencyCache.Claim failing = cache.claim("abandoned", BODY);
+
+        ExecutorService retries = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyCache.Claim> afterComplete = retries.submit(() -> cache.claim("completed", BODY));
+            Future<IdempotencyCache.Claim> afterAbandon = retries.submit(() -> cache.claim("abandoned", BODY));
+            assertThrows(TimeoutException.class, () -> afterComplete.get(100, TimeUnit.MILLISECONDS));
+            assertThrows(TimeoutException.class, () -> afterAbandon.get(100, TimeUnit.MILLISECONDS));
+
+            IdempotencyCache.StoredResponse response = response(10);
+            cache.complete(running, response);
+            cache.abandon(failing);
+
+            // One replays the stored response, the other gets to run the request itself
+            assertSame(response, afterComplete.get(5, TimeUnit.SECONDS).getStored());
+            IdempotencyCache.Claim rerun = afterAbandon.get(5, TimeUnit.SECONDS);
+            assertNull(rerun.getStored());
+            assertFalse(rerun.isMismatch());
+        } finally {
+            retries.shutdownNow();
+        }
+    }
+
+    @Test
+    void expiredEntryRunsAgain() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(1, 100, 1 << 20);
+        cache.complete(cache.claim("key", BODY), response(10));
+        Thread.sleep(1100);
+
+        IdempotencyCache.Claim retry = cache.claim("key", BODY);
+        assertNull(retry.getStored());
+
+        // The expired entry is accounted for by the next eviction pass
+        cache.complete(retry, response(10));
+        assertEquals(1, cache.getStats().get("expiredEvictions"));
+        assertEquals(1, cache.getStats().get("entries"));
+        assertEquals(0, cache.getStats().get("capacityEvictions"));
+    }
+
+    @Test
+    void entryCapEvictsTheOldest() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(600, 2, 1 << 20);
+        for (String key : new String[] { "a", "b", "c" }) {
+            cache.complete(cache.claim(key, BODY), response(10));
+        }
+
+        assertEquals(2, cache.getStats().get("entries"));
+        assertEquals(1, cache.getStats().get("capacityEvictions"));
+        assertNull(cache.claim("a", BODY).getStored());
+        assertNotNull(cache.claim("c", BODY).getStored());
+    }
+
+    @Test
+    void byteCapEvictsTheOldest() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(600, 100, 2500);
+        for (String key : new String[] { "a", "b", "c" }) {
+            cache.complete(cache.claim(key, BODY), response(1000));
+        }
+
+        assertEquals(2, cache.getStats().get("entries"));
+        assertTrue(cache.getStats().get("bytes") <= 2500);
+        assertEquals(1, cache.getStats().get("capacityEvictions"));
+        assertNull(cache.claim("a", BODY).getStored());
+        assertNotNull(cache.claim("b", BODY).getStored());
+    }
+
+    // HELPER METHODS
+    private static IdempotencyCache.StoredResponse response(int bodyBytes) {
+        return new IdempotencyCache.StoredResponse(200, "application/json", new byte[bodyBytes]);
+    }
+
+    // SHA-256 of the body, as IdempotencyFilter computes it
+    private static byte[] hash(String body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package backend.models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandPipelineTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int ROUNDS = 200;
+
+    @AfterEach
+    void tearDown() {
+        CommandPipeline.stop();
+    }
+
+    @Test
+    void appliesMutationsOnTheWriterThread() {
+        CommandPipeline.start(8);
+        String thread = StateLock.write(() -> Thread.currentThread().getName());
+        assertEquals("state-writer", thread);
+    }
+
+    @Test
+    void failingMutationFailsOnlyItsOwnCaller() {
+        CommandPipeline.start(8);
+        CompletableFuture<Object> failing = CommandPipeline.submit(() -> {
+            throw new IllegalArgumentException("rejected");
+        });
+        CompletableFuture<Integer> passing = CommandPipeline.submit(() -> 42);
+
+        CompletionException error = assertThrows(CompletionException.class, failing::join);
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertEquals(42, passing.join());
+    }
+
+    // Producers keep submitting while the pipeline stops underneath them; every
+    // future has to complete, whether the writer, stop() or the producer ran it
+    @Test
+    void submitsRacingStopAllComplete() throws Exception {
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CommandPipeline.start(4);
+                AtomicInteger applied = new AtomicInteger();
+                CountDownLatch started = new CountDownLatch(PRODUCERS);
+                List<Future<List<CompletableFuture<Integer>>>> submitted = new ArrayList<>();
+                for (int p = 0; p < PRODUCERS; p++) {
+                    submitted.add(producers.submit(() -> {
+                        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+                        started.countDown();
+                        for (int i = 0; i < 200; i++) {
+                            futures.add(CommandPipeline.submit(applied::incrementAndGet));
+                        }
+                        return futures;
+                    }));
+                }
+
+                started.await();
+                CommandPipeline.stop();
+
+                int total = 0;
+                for (Future<List<CompletableFuture<Integer>>> producer : submitted) {
+                    for (CompletableFuture<Integer> future : producer.get(10, TimeUnit.SECONDS)) {
+                        future.get(10, TimeUnit.SECONDS);
+                        total++;
+                    }
+                }
+                assertEquals(PRODUCERS * 200, total, "round " + round);
+                assertEquals(total, applied.get(), "round " + round);
+            }
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package backend.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Builds the same random dine-in floor twice, lets parties pay and leave in
+// rounds, and after each round matches the waiting parties once with the
+// DineInMatcher and once with the pass over the whole dine-in queue it
+// replaced. Both floors must end up with the same seats, waiters, free tables
+// and round-robin position after every round.
+class DineInMatcherTest {
+
+    private static final int FLOORS = 500;
+    private static final int ROUNDS = 12;
+
+    @Test
+    void matcherSeatsLikeTheQueueWalk() {
+        for (long seed = 0; seed < FLOORS; seed++) {
+            List<String> matched = runFloor(seed, true);
+            List<String> walked = runFloor(seed, false);
+            assertEquals(walked, matched, "floor " + seed);
+        }
+    }
+
+    // HELPER METHODS
+    // Fingerprints of the floor after each round
+    private static List<String> runFloor(long seed, boolean useMatcher) {
+        return StateLock.write(() -> {
+            Random random = new Random(seed);
+            Waiter.defineWaiters();
+            TableManager.defineTables();
+            Patron.clear(1);
+
+            // Some waiter slots already taken by parties outside this queue
+            int busySlots = random.nextInt(12);
+            for (int i = 0; i < busySlots; i++) {
+                Waiter.findFreeWaiterForDineIn();
+            }
+
+            // Parties up to 10, so some fit no table at all
+            List<Patron> queue = new ArrayList<>();
+            int length = random.nextInt(60);
+            for (int i = 0; i < length; i++) {
+                Patron patron = new Patron("Customer", 1 + random.nextInt(10), 1);
+                if (random.nextInt(10) == 0) {
+                    patron.setWaiter(Waiter.findFreeWaiterForDineIn());
+                }
+                queue.add(patron);
+            }
+            Patron.restoreQueue(queue, true);
+
+            List<String> fingerprints = new ArrayList<>();
+            for (int round = 0; round < ROUNDS; round++) {
+                if (useMatcher) {
+                    DineInMatcher.match();
+                } else {
+                    walkQueue();
+                }
+                fingerprints.add(fingerprint());
+                leaveRandomly(random);
+            }
+            return fingerprints;
+        });
+    }
+
+    // The pass over the dine-in queue the matcher replaced
+    private static void walkQueue() {
+        for (Patron current = Patron.firstDineIn; current != null; current = current.next) {
+            if (current.getTableId() == 0) {
+                if (current.getWaiter() == null) {
+                    Waiter w = Waiter.findFreeWaiterForDineIn();
+                    if (w != null) {
+                        current.setWaiter(w);
+                    }
+                }
+                TableManager.Table t = TableManager.findTable(current.getGroupSize());
+                if (t != null) {
+                    t.assignToPatron(current);
+                    current.setTableId(t.getNumber());
+                }
+            }
+        }
+    }
+
+    // Seated parties pay and a few waiting ones give up, freeing tables and waiter
+    // slots without matching, so the next round decides who gets them
+    private static void leaveRandomly(Random random) {
+        List<Patron> leaving = new ArrayList<>();
+        for (Patron current = Patron.firstDineIn; current != null; current = current.next) {
+            if (random.nextInt(current.getTableId() != 0 ? 3 : 15) == 0) {
+                leaving.add(current);
+            }
+        }
+        for (Patron patron : leaving) {
+            if (patron.getWaiter() != null) {
+                Waiter.releaseWaiterAfterPayment(patron.getWaiter().getStaffId(), true);
+            }
+            if (patron.getTableId() != 0) {
+                TableManager.Table table = TableManager.getTableByNumber(patron.getTableId());
+                table.restorePatron(null);
+                List<TableManager.Table> free = new ArrayList<>(
+                        TableManager.availableQueues().getOrDefault(table.getTableSize(), new LinkedList<>()));
+                free.add(table);
+                TableManager.restoreAvailableQueue(table.getTableSize(), free);
+            }
+            unlink(patron);
+        }
+    }
+
+    private static void unlink(Patron patron) {
+        Patron prev = null;
+        for (Patron current = Patron.firstDineIn; current != patron; current = current.next) {
+            prev = current;
+        }
+        if (prev == null) {
+            Patron.firstDineIn = patron.next;
+        } else {
+            prev.next = patron.next;
+        }
+        if (Patron.lastDineIn == patron) {
+            Patron.lastDineIn = prev;
+        }
+        patron.next = null;
+        patron.leaveQueue();
+    }
+
+    private static String fingerprint() {
+        StringBuilder out = new StringBuilder();
+        List<Patron> patrons = new ArrayList<>(Patron.allPatrons());
+        patrons.sort(Comparator.comparingInt(Patron::getId));
+        for (Patron patron : patrons) {
+            out.append(patron.getId()).append(':').append(patron.getTableId()).append(':')
+                    .append(patron.getWaiter() != null ? patron.getWaiter().getStaffId() : "-").append(' ');
+        }
+        out.append("| ");
+        for (TableManager.Table table : TableManager.getAllTables()) {
+            out.append(table.getTableNumber()).append('=')
+                    .append(table.getPatron() != null ? table.getPatron().getId() : 0).append(' ');
+        }
+        out.append("| ");
+        for (int size : TableManager.TABLE_SIZES) {
+            for (TableManager.Table table : TableManager.availableQueues().getOrDefault(size, new LinkedList<>())) {
+                out.append(table.getTableNumber()).append(' ');
+            }
+        }
+        out.append("| ");
+        for (Waiter waiter : Waiter.getAllWaiters()) {
+            out.append(waiter.getStaffId()).append('=').append(waiter.getAssignedDineInCount()).append(' ');
+        }
+        out.append(Waiter.current != null ? Waiter.current.getStaffId() : "-");
+        return out.toString();
+    }
+}
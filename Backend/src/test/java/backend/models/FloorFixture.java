@@ -0,0 +1,75 @@
+package backend.models;
+
+import java.util.*;
+
+// Shared setup for tests that drive the static floor model
+final class FloorFixture {
+
+    private FloorFixture() {
+    }
+
+    // An empty floor, as on a fresh start
+    static void reset() {
+        StateLock.write(() -> {
+            Waiter.defineWaiters();
+            TableManager.defineTables();
+            ReportAggregator.closeDay();
+            RollingStats.clear();
+            Patron.clear(1);
+            OrderRegistry.clear(1, 1);
+            OrderArchive.restorePendingDays(Map.of());
+        });
+    }
+
+    static Order.OrderItemRequest item(String name, int quantity) {
+        Order.OrderItemRequest request = new Order.OrderItemRequest();
+        request.setName(name);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    // Everything a restart has to bring back: orders and their lines, patrons,
+    // queues, tables, waiter loads, the day's totals and the next ids
+    static String describe() {
+        return StateLock.read(() -> {
+            StringBuilder out = new StringBuilder();
+            out.append("next ").append(Patron.peekNextId()).append(' ').append(OrderRegistry.peekNextOrderId())
+                    .append(' ').append(OrderRegistry.peekNextItemId()).append('\n');
+            for (Order order : OrderRegistry.orders()) {
+                out.append("order ").append(order.getOrderId()).append(' ').append(order.getPatronId()).append(' ')
+                        .append(order.getWaiterStaffId()).append(' ').append(order.getTableNumber()).append(' ')
+                        .append(order.getServiceType()).append(' ').append(order.isPaid()).append(' ')
+                        .append(order.getCreatedAt()).append(' ').append(order.getPaidAt()).append(' ')
+                        .append(order.getTotalCents()).append(' ').append(order.getTotalItems());
+                for (Order.OrderItem item : order.getItems()) {
+                    out.append(' ').append(item.getItemId()).append('x').append(item.getQuantity())
+                            .append(item.getName());
+                }
+                out.append('\n');
+            }
+            List<Patron> patrons = new ArrayList<>(Patron.allPatrons());
+            patrons.sort(Comparator.comparingInt(Patron::getId));
+            for (Patron patron : patrons) {
+                out.append("patron ").append(patron.getId()).append(' ').append(patron.getGroupSize()).append(' ')
+                        .append(patron.getServiceType()).append(' ').append(patron.getTableId()).append(' ')
+                        .append(patron.getWaiter() != null ? patron.getWaiter().getStaffId() : "-").append(' ')
+                        .append(patron.getOrder() != null ? patron.getOrder().getOrderId() : 0).append('\n');
+            }
+            out.append("queues");
+            for (Patron patron : Patron.getAll()) {
+                out.append(' ').append(patron.getId());
+            }
+            out.append('\n').append("tables");
+            for (TableManager.Table table : TableManager.getAllTables()) {
+                out.append(' ').append(table.getTableNumber()).append('=')
+                        .append(table.getPatron() != null ? table.getPatron().getId() : 0);
+            }
+            out.append('\n').append("waiters");
+            for (Map<String, Object> waiter : Waiter.getWaitersDetailed()) {
+                out.append(' ').append(new TreeMap<>(waiter));
+            }
+            out.append('\n').append("totals ").append(new TreeMap<>(ReportAggregator.getDayTotals()));
+            return out.toString();
+        });
+    }
+}
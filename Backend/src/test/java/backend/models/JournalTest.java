@@ -0,0 +1,163 @@
+package backend.models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        FloorFixture.reset();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Journal.close();
+    }
+
+    @Test
+    void replayRebuildsTheFloor() throws IOException {
+        Journal.open(directory, 0);
+        int records = runDay();
+        String before = FloorFixture.describe();
+        Journal.close();
+
+        FloorFixture.reset();
+        assertEquals(records, Journal.open(directory, 0));
+        assertEquals(before, FloorFixture.describe());
+    }
+
+    @Test
+    void replayContinuesAcrossSegments() throws IOException {
+        Journal.open(directory, 0);
+        int records = runDay();
+        Journal.close();
+
+        // Reopening starts a new segment after the replayed records
+        FloorFixture.reset();
+        Journal.open(directory, 0);
+        int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+        Order.createOrder(patronId, List.of(FloorFixture.item("Coffee", 1)));
+        String before = FloorFixture.describe();
+        Journal.close();
+        assertEquals(2, segments().size());
+
+        FloorFixture.reset();
+        assertEquals(records + 2, Journal.open(directory, 0));
+        assertEquals(before, FloorFixture.describe());
+    }
+
+    @Test
+    void replaySkipsRecordsCoveredBySnapshot() throws IOException {
+        Journal.open(directory, 0);
+        int patronId = (Integer) Patron.createNewPatron(1, 2).get("id");
+        long snapshotSeq = StateLock.read(() -> {
+            try {
+                return Journal.rotate();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        byte[] image = StateLock.read(() -> {
+            try {
+                return Snapshot.capture(snapshotSeq);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        Order.createOrder(patronId, List.of(FloorFixture.item("Classic Burger", 2)));
+        String before = FloorFixture.describe();
+        Journal.close();
+
+        FloorFixture.reset();
+        assertEquals(1, Snapshot.restore(image));
+        assertEquals(1, Journal.open(directory, snapshotSeq));
+        assertEquals(before, FloorFixture.describe());
+    }
+
+    @Test
+    void tornTailIsTruncated() throws IOException {
+        Journal.open(directory, 0);
+        int records = runDay();
+        String before = FloorFixture.describe();
+        Journal.close();
+
+        Path segment = segments().get(0);
+        long intact = Files.size(segment);
+        // The start of a frame whose payload never made it to disk
+        Files.write(segment, ByteBuffer.allocate(12).putInt(40).putInt(0x1234).putInt(0).array(),
+                StandardOpenOption.APPEND);
+
+        FloorFixture.reset();
+        assertEquals(records, Journal.open(directory, 0));
+        assertEquals(before, FloorFixture.describe());
+        assertEquals(intact, Files.size(segment));
+    }
+
+    @Test
+    void corruptRecordEndsReplay() throws IOException {
+        Journal.open(directory, 0);
+        int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+        String before = FloorFixture.describe();
+        Order.createOrder(patronId, List.of(FloorFixture.item("Coffee", 1)));
+        Journal.close();
+
+        // Flip the last payload byte of the order record
+        Path segment = segments().get(0);
+        long firstRecordLength;
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            ch.read(length, 0);
+            firstRecordLength = 16 + length.getInt(0);
+            ByteBuffer last = ByteBuffer.allocate(1);
+            ch.read(last, ch.size() - 1);
+            last.put(0, (byte) (last.get(0) ^ 0xFF)).rewind();
+            ch.write(last, ch.size() - 1);
+        }
+
+        FloorFixture.reset();
+        assertEquals(1, Journal.open(directory, 0));
+        assertEquals(before, FloorFixture.describe());
+        assertEquals(firstRecordLength, Files.size(segment));
+    }
+
+    // HELPER METHODS
+    // A dine-in and a takeout party through ordering, adding items and paying; returns the records written
+    private static int runDay() {
+        int dineIn = (Integer) Patron.createNewPatron(1, 3).get("id");
+        int takeout = (Integer) Patron.createNewPatron(0, null).get("id");
+        int dineInOrder = (Integer) Order.createOrder(dineIn,
+                List.of(FloorFixture.item("Classic Burger", 2), FloorFixture.item("Coffee", 3))).get("orderId");
+        int takeoutOrder = (Integer) Order.createOrder(takeout, List.of(FloorFixture.item("Coffee", 1)))
+                .get("orderId");
+        Order.addItemsToOrder(dineInOrder, List.of(FloorFixture.item("Coffee", 1)));
+        Order.markOrderAsPaid(takeoutOrder);
+        Order.markOrderAsPaid(dineInOrder);
+        return 7;
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "journal-*.log")) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+}
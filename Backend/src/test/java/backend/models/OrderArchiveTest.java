@@ -0,0 +1,77 @@
+package backend.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderArchiveTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        FloorFixture.reset();
+        OrderArchive.configure(directory.resolve("archive"));
+    }
+
+    @Test
+    void rolloverArchivesAndEvictsPaidOrders() throws IOException {
+        int paid = payForOrder(1, 2);
+        int open = (Integer) Order.createOrder(newPatron(), List.of(FloorFixture.item("Coffee", 1)))
+                .get("orderId");
+
+        assertEquals(1, OrderArchive.rollover(DAY));
+
+        ArchivedDay archived = OrderArchive.openDay(DAY);
+        assertEquals(1, archived.size());
+        assertEquals(paid, archived.findOrder(paid).getOrderId());
+        assertNull(Order.findOrderById(paid));
+        assertNotNull(Order.findOrderById(open));
+        assertTrue(StateLock.read(OrderArchive::pendingDays).isEmpty());
+    }
+
+    @Test
+    void failedWriteKeepsOrdersUntilTheNextRollover() throws IOException {
+        // A file where the archive directory should be makes every segment write fail
+        Path blocked = Files.createFile(directory.resolve("blocked"));
+        OrderArchive.configure(blocked);
+        int first = payForOrder(1, 1);
+
+        assertEquals(0, OrderArchive.rollover(DAY));
+        assertNotNull(Order.findOrderById(first));
+        assertEquals(Set.of(DAY), StateLock.read(() -> new HashSet<>(OrderArchive.pendingDays().keySet())));
+
+        OrderArchive.configure(directory.resolve("archive"));
+        int second = payForOrder(3, 1);
+        assertEquals(2, OrderArchive.rollover(DAY.plusDays(1)));
+
+        assertEquals(first, OrderArchive.openDay(DAY).findOrder(first).getOrderId());
+        assertEquals(second, OrderArchive.openDay(DAY.plusDays(1)).findOrder(second).getOrderId());
+        assertNull(Order.findOrderById(first));
+        assertNull(Order.findOrderById(second));
+        assertTrue(StateLock.read(OrderArchive::pendingDays).isEmpty());
+    }
+
+    // HELPER METHODS
+    private static int newPatron() {
+        return (Integer) Patron.createNewPatron(0, null).get("id");
+    }
+
+    private static int payForOrder(int burgers, int coffees) {
+        int orderId = (Integer) Order.createOrder(newPatron(), List.of(FloorFixture.item("Classic Burger", burgers),
+                FloorFixture.item("Coffee", coffees))).get("orderId");
+        Order.markOrderAsPaid(orderId);
+        return orderId;
+    }
+}
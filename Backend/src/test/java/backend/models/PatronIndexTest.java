@@ -0,0 +1,174 @@
+package backend.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Randomised joins, orders and payments, checking after every step that the
+// counts and lists served from the PatronIndex match walks over the dine-in and
+// takeout queues, which is how they were computed before the index existed.
+class PatronIndexTest {
+
+    private static final long[] SEEDS = { 1, 7, 42, 2024 };
+    private static final int STEPS = 4000;
+
+    @BeforeEach
+    void setUp() {
+        FloorFixture.reset();
+    }
+
+    @Test
+    void indexAgreesWithQueueWalks() {
+        for (long seed : SEEDS) {
+            FloorFixture.reset();
+            Random random = new Random(seed);
+            for (int step = 0; step < STEPS; step++) {
+                randomStep(random);
+                assertMatchesQueues(seed + "/" + step);
+
+                // Restoring rebuilds the index from the queues
+                if (step % 500 == 499) {
+                    roundTrip();
+                    assertMatchesQueues(seed + "/" + step + " after restore");
+                }
+            }
+        }
+    }
+
+    @Test
+    void dashboardCountsMatchPendingCounts() {
+        Random random = new Random(3);
+        for (int step = 0; step < 500; step++) {
+            randomStep(random);
+        }
+        Map<String, Object> dashboard = Dashboard.snapshot();
+        assertEquals(walkPendingCounts(), dashboard.get("pendingCounts"));
+        assertEquals(Patron.getPendingOrderCounts(), dashboard.get("pendingCounts"));
+    }
+
+    // HELPER METHODS
+    private static void randomStep(Random random) {
+        int action = random.nextInt(10);
+        if (action < 5) {
+            // Service type 2 is queued as dine-in but never counts as pending
+            int serviceType = random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(4) / 3;
+            Patron patron = new Patron("Customer", 1 + random.nextInt(10), serviceType);
+            if (random.nextInt(8) == 0) {
+                patron.setWaiter(Waiter.findWaiterByStaffId("STF002"));
+            }
+            StateLock.write(patron::joinQueue);
+            if (random.nextBoolean()) {
+                Order.createOrder(patron.getId(), List.of(FloorFixture.item("Coffee", 1)));
+            }
+        } else if (action < 7) {
+            List<Patron> waiting = StateLock.read(Patron::getWithoutOrders);
+            if (!waiting.isEmpty()) {
+                Patron patron = waiting.get(random.nextInt(waiting.size()));
+                Order.createOrder(patron.getId(),
+                        List.of(FloorFixture.item("Classic Burger", 1 + random.nextInt(3))));
+            }
+        } else {
+            List<Order> open = StateLock.read(() -> new ArrayList<>(OrderRegistry.openOrders()));
+            if (!open.isEmpty()) {
+                Order.markOrderAsPaid(open.get(random.nextInt(open.size())).getOrderId());
+            }
+        }
+    }
+
+    private static void assertMatchesQueues(String step) {
+        StateLock.read(() -> {
+            assertEquals(walkQueueCounts(), Patron.getQueueCounts(), "queue counts at " + step);
+            assertEquals(walkPendingCounts(), Patron.getPendingOrderCounts(), "pending counts at " + step);
+            assertEquals(ids(walkWithoutOrders()), ids(Patron.getWithoutOrders()), "without orders at " + step);
+            assertEquals(ids(walkDineInWithOrders()), ids(Patron.getDineInWithOrders()),
+                    "dine-in with orders at " + step);
+            return null;
+        });
+    }
+
+    private static void roundTrip() {
+        byte[] image = StateLock.read(() -> {
+            try {
+                return Snapshot.capture(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            Snapshot.restore(image);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The queue walks the index replaced
+    private static Map<String, Integer> walkQueueCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        counts.put("dineInQueue", countWithoutOrder(Patron.firstDineIn));
+        counts.put("takeoutQueue", countWithoutOrder(Patron.firstTakeout));
+        return counts;
+    }
+
+    private static int countWithoutOrder(Patron start) {
+        int count = 0;
+        for (Patron current = start; current != null; current = current.next) {
+            if (current.getOrder() == null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Map<String, Integer> walkPendingCounts() {
+        int dineInPending = 0;
+        int takeoutPending = 0;
+        for (Patron patron : Patron.getAll()) {
+            if (patron.getOrder() != null && !patron.getOrder().isPaid()) {
+                if (patron.getServiceType() == 1) {
+                    dineInPending++;
+                } else if (patron.getServiceType() == 0) {
+                    takeoutPending++;
+                }
+            }
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        counts.put("dineInPending", dineInPending);
+        counts.put("takeoutPending", takeoutPending);
+        return counts;
+    }
+
+    private static List<Patron> walkWithoutOrders() {
+        List<Patron> list = new ArrayList<>();
+        for (Patron start : new Patron[] { Patron.firstDineIn, Patron.firstTakeout }) {
+            for (Patron current = start; current != null; current = current.next) {
+                if (current.getOrder() == null) {
+                    list.add(current);
+                }
+            }
+        }
+        return list;
+    }
+
+    private static List<Patron> walkDineInWithOrders() {
+        List<Patron> list = new ArrayList<>();
+        for (Patron current = Patron.firstDineIn; current != null; current = current.next) {
+            if (current.getOrder() != null && current.getServiceType() == 1) {
+                list.add(current);
+            }
+        }
+        return list;
+    }
+
+    private static List<Integer> ids(List<Patron> patrons) {
+        List<Integer> ids = new ArrayList<>(patrons.size());
+        for (Patron patron : patrons) {
+            ids.add(patron.getId());
+        }
+        return ids;
+    }
+}
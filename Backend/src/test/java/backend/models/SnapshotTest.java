@@ -0,0 +1,115 @@
+package backend.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+
+    // Fixed clock for orders and payments, so replaying the same steps gives the same floor
+    private static final long TIME = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        FloorFixture.reset();
+    }
+
+    @Test
+    void captureAndRestoreRoundTrip() throws IOException {
+        busyFloor(new Random(11));
+        String before = FloorFixture.describe();
+        byte[] image = capture(17);
+
+        FloorFixture.reset();
+        assertEquals(17, Snapshot.restore(image));
+        assertEquals(before, FloorFixture.describe());
+    }
+
+    @Test
+    void restoredFloorCarriesOnLikeTheOriginal() throws IOException {
+        busyFloor(new Random(11));
+        byte[] image = capture(0);
+        busyFloor(new Random(12));
+        String original = FloorFixture.describe();
+
+        // Seating, ordering and paying from the restored floor end in the same place
+        FloorFixture.reset();
+        Snapshot.restore(image);
+        busyFloor(new Random(12));
+        assertEquals(original, FloorFixture.describe());
+    }
+
+    @Test
+    void takeWritesARestorableSnapshot() throws IOException {
+        busyFloor(new Random(5));
+        String before = FloorFixture.describe();
+        Snapshot.configure(directory);
+        Snapshot.take();
+
+        FloorFixture.reset();
+        Snapshot.restoreLatest();
+        assertEquals(before, FloorFixture.describe());
+    }
+
+    @Test
+    void damagedImageIsRejected() throws IOException {
+        busyFloor(new Random(3));
+        String before = FloorFixture.describe();
+        byte[] image = capture(1);
+        image[image.length / 2] ^= 0x40;
+
+        assertThrows(IOException.class, () -> Snapshot.restore(image));
+        assertThrows(IOException.class, () -> Snapshot.restore(Arrays.copyOf(image, 20)));
+        assertEquals(before, FloorFixture.describe());
+    }
+
+    // HELPER METHODS
+    // Seated and waiting dine-in parties, takeout, open and paid orders, added items
+    private static void busyFloor(Random random) {
+        for (int step = 0; step < 400; step++) {
+            int action = random.nextInt(10);
+            if (action < 4) {
+                int serviceType = random.nextInt(3) == 0 ? 0 : 1;
+                Patron patron = new Patron("Customer", 1 + random.nextInt(9), serviceType);
+                StateLock.write(patron::joinQueue);
+            } else if (action < 7) {
+                List<Patron> waiting = StateLock.read(Patron::getWithoutOrders);
+                if (!waiting.isEmpty()) {
+                    Patron patron = waiting.get(random.nextInt(waiting.size()));
+                    Order.createOrder(patron.getId(), List.of(FloorFixture.item("Classic Burger", 1),
+                            FloorFixture.item("Coffee", 1 + random.nextInt(3))), TIME + step);
+                }
+            } else {
+                List<Order> open = StateLock.read(() -> new ArrayList<>(OrderRegistry.openOrders()));
+                if (open.isEmpty())
+                    continue;
+                Order order = open.get(random.nextInt(open.size()));
+                if (action == 7) {
+                    Order.addItemsToOrder(order.getOrderId(), List.of(FloorFixture.item("French Fries", 2)));
+                } else {
+                    Order.markOrderAsPaid(order.getOrderId(), TIME + step);
+                }
+            }
+        }
+    }
+
+    private static byte[] capture(long journalSeq) {
+        return StateLock.read(() -> {
+            try {
+                return Snapshot.capture(journalSeq);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
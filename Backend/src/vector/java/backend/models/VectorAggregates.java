@@ -0,0 +1,55 @@
+package backend.models;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// Vector API kernels for OrderHistory. Compiled only by the vector-api Maven
+// profile, and loaded reflectively once OrderHistory has seen the incubator
+// module in the boot layer, so nothing here is touched on a JVM started
+// without --add-modules jdk.incubator.vector.
+final class VectorAggregates implements OrderHistory.KeySums {
+
+    // Long lanes for the values, and int lanes of the same count for the keys. Int
+    // lanes need half the long vector's width, and the smallest shape is 64 bits.
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = LONGS.vectorBitSize() >= 128
+            ? VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2))
+            : null;
+
+    // Refused on a JVM whose preferred long vector is a single lane, e.g. -XX:MaxVectorSize=8
+    VectorAggregates() {
+        if (INTS == null) {
+            throw new UnsupportedOperationException("No int vector shape for " + LONGS);
+        }
+    }
+
+    // AGGREGATION: sums[k] = sum of values[i] where keys[i] == k, for the first size rows.
+    // One masked pass per key keeps the accumulator in a register; key columns are
+    // small dictionaries, so the extra passes stay cheap.
+    @Override
+    public long[] sumByKey(int[] keys, long[] values, int size, int keyCount) {
+        long[] sums = new long[keyCount];
+        int bound = INTS.loopBound(size);
+
+        for (int key = 0; key < keyCount; key++) {
+            LongVector acc = LongVector.zero(LONGS);
+            for (int row = 0; row < bound; row += INTS.length()) {
+                VectorMask<Long> match = IntVector.fromArray(INTS, keys, row).eq(key).cast(LONGS);
+                acc = acc.add(LongVector.fromArray(LONGS, values, row), match);
+            }
+
+            long sum = acc.reduceLanes(VectorOperators.ADD);
+            for (int row = bound; row < size; row++) {
+                if (keys[row] == key) {
+                    sum += values[row];
+                }
+            }
+            sums[key] = sum;
+        }
+        return sums;
+    }
+}
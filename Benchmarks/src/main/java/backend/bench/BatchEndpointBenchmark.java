@@ -0,0 +1,107 @@
+package backend.bench;
+
+import backend.Main;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end HTTP throughput of a takeout flow (add patron, create order, pay)
+// sent as three single-command requests versus as part of one batch request.
+// Scores are flows per millisecond; the server runs in-process.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class BatchEndpointBenchmark {
+
+    private static final int FLOWS_PER_BATCH = 10;
+
+    @Param({ "true", "false" })
+    public boolean journal;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private String baseUrl;
+    private String batchBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path dataDir = Files.createTempDirectory("batch-bench");
+        // Command-line arguments, since they take precedence over the bundled application.properties
+        context = SpringApplication.run(Main.class,
+                "--server.port=0",
+                "--pos.data-dir=" + dataDir,
+                "--pos.journal.enabled=" + journal,
+                "--pos.snapshot.enabled=false",
+                "--logging.level.root=WARN");
+
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+        objectMapper = new ObjectMapper();
+
+        StringBuilder body = new StringBuilder("[");
+        for (int flow = 0; flow < FLOWS_PER_BATCH; flow++) {
+            int first = flow * 3;
+            if (flow > 0) {
+                body.append(',');
+            }
+            body.append("{\"type\":\"add-patron\",\"orderType\":0},")
+                    .append("{\"type\":\"create\",\"patronFrom\":").append(first)
+                    .append(",\"items\":[{\"name\":\"Classic Burger\",\"quantity\":1},{\"name\":\"Coffee\",\"quantity\":2}]},")
+                    .append("{\"type\":\"mark-paid\",\"orderFrom\":").append(first + 1).append('}');
+        }
+        batchBody = body.append(']').toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public JsonNode singleCommands() throws Exception {
+        JsonNode patron = post("/patrons/add", "{\"orderType\":0}");
+        JsonNode order = post("/orders/create", "{\"patronId\":" + patron.get("id").asInt()
+                + ",\"items\":[{\"name\":\"Classic Burger\",\"quantity\":1},{\"name\":\"Coffee\",\"quantity\":2}]}");
+        return post("/orders/" + order.get("orderId").asInt() + "/mark-paid", "");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLOWS_PER_BATCH)
+    public JsonNode batchedCommands() throws Exception {
+        return post("/orders/batch", batchBody);
+    }
+
+    // Plain keep-alive POST; HttpURLConnection reuses the connection once the body is read
+    private JsonNode post(String path, String json) throws Exception {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        if (connection.getResponseCode() != 200) {
+            throw new IllegalStateException(path + " returned " + connection.getResponseCode());
+        }
+        try (InputStream in = connection.getInputStream()) {
+            return objectMapper.readTree(in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package backend.bench;
+
+import backend.models.Order;
+
+// Shared helpers for building benchmark input
+public final class BenchData {
+
+    private BenchData() {
+    }
+
+    public static Order.OrderItemRequest item(String name, int quantity) {
+        Order.OrderItemRequest request = new Order.OrderItemRequest();
+        request.setName(name);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
@@ -0,0 +1,31 @@
+package backend.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Entry point of benchmarks.jar: the standard JMH runner with the GC profiler
+// switched on, so every result comes with allocation per operation
+// (gc.alloc.rate.norm). Pass "-prof gc" yourself to configure it, or
+// "--no-gc" to leave it off. Data sizes are JMH parameters, e.g.
+//   java -jar target/benchmarks.jar PatronQueueBenchmark -p queueLength=100,10000
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        boolean gc = !jmhArgs.remove("--no-gc");
+        for (int i = 0; i + 1 < jmhArgs.size(); i++) {
+            if (jmhArgs.get(i).equals("-prof") && jmhArgs.get(i + 1).startsWith("gc")) {
+                gc = false;
+            }
+        }
+        if (gc) {
+            jmhArgs.add(0, "-prof");
+            jmhArgs.add(1, "gc");
+        }
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+}
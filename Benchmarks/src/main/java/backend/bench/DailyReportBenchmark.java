@@ -0,0 +1,47 @@
+package backend.bench;
+
+import backend.models.Order;
+import backend.models.Patron;
+import backend.models.Reports;
+import backend.models.TableManager;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The complete daily report (overview, staff, menu and finance) after the
+// given number of paid orders.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+@State(Scope.Benchmark)
+public class DailyReportBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int paidOrders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+        List<List<Order.OrderItemRequest>> baskets = List.of(
+                List.of(BenchData.item("Classic Burger", 2), BenchData.item("Coffee", 1)),
+                List.of(BenchData.item("Garden Salad", 1), BenchData.item("Still Water", 2)),
+                List.of(BenchData.item("Grilled Steak", 1), BenchData.item("Cheesecake", 1)));
+
+        for (int i = 0; i < paidOrders; i++) {
+            int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+            Map<String, Object> order = Order.createOrder(patronId, baskets.get(i % baskets.size()));
+            Order.markOrderAsPaid((Integer) order.get("orderId"));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> getCompleteDailyReport() {
+        return Reports.getCompleteDailyReport();
+    }
+}
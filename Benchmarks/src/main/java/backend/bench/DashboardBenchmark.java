@@ -0,0 +1,137 @@
+package backend.bench;
+
+import backend.Main;
+import backend.models.Dashboard;
+import backend.models.Order;
+import backend.models.Patron;
+import backend.models.Reports;
+import backend.models.TableManager;
+import backend.models.Waiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cost of one dashboard refresh: the five separate endpoints the dashboard used
+// to call versus the single /api/dashboard snapshot. The model* benchmarks build
+// and serialise the responses directly; the http* ones go through the in-process
+// server, so they include request handling on both ends. Those endpoints are
+// served from StateResponseCache until the floor changes, so each http* call
+// first adds an item to an open order, as a busy floor would between refreshes;
+// otherwise they would only measure cache hits. Single-threaded, so time per
+// operation is CPU time. Run with "-prof gc" to compare allocation.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+
+    @Param({ "1000" })
+    public int paidOrders;
+
+    @Param({ "50" })
+    public int openOrders;
+
+    private static final List<Order.OrderItemRequest> ADDED_ITEM = List.of(BenchData.item("Coffee", 1));
+
+    private static final List<String> DASHBOARD_ENDPOINTS = List.of(
+            "/tables", "/orders/pending", "/patrons/pending-counts", "/reports/daily", "/waiters/detailed");
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private String baseUrl;
+    private final List<Integer> openOrderIds = new ArrayList<>();
+    private int nextOpenOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Command-line arguments, since they take precedence over the bundled application.properties
+        context = SpringApplication.run(Main.class,
+                "--server.port=0",
+                "--pos.data-dir=" + Files.createTempDirectory("dashboard-bench"),
+                "--pos.journal.enabled=false",
+                "--pos.snapshot.enabled=false",
+                "--logging.level.root=WARN");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+        objectMapper = new ObjectMapper();
+        List<Order.OrderItemRequest> items = List.of(BenchData.item("Classic Burger", 2),
+                BenchData.item("Coffee", 1), BenchData.item("French Fries", 1));
+
+        for (int i = 0; i < paidOrders; i++) {
+            int patronId = (Integer) Patron.createNewPatron(i % 2, 2).get("id");
+            Map<String, Object> order = Order.createOrder(patronId, items);
+            Order.markOrderAsPaid((Integer) order.get("orderId"));
+        }
+
+        // Seat as many dine-in parties as the floor allows, the rest are takeout
+        for (int i = 0; i < openOrders; i++) {
+            int serviceType = i < 12 ? 1 : 0;
+            int patronId = (Integer) Patron.createNewPatron(serviceType, 2).get("id");
+            openOrderIds.add((Integer) Order.createOrder(patronId, items).get("orderId"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void modelFiveEndpoints(Blackhole blackhole) throws Exception {
+        blackhole.consume(objectMapper.writeValueAsBytes(TableManager.getAllTablesWithDetails()));
+        blackhole.consume(objectMapper.writeValueAsBytes(Order.getPendingOrders()));
+        blackhole.consume(objectMapper.writeValueAsBytes(Patron.getPendingOrderCounts()));
+        blackhole.consume(objectMapper.writeValueAsBytes(Reports.getCompleteDailyReport()));
+        blackhole.consume(objectMapper.writeValueAsBytes(Waiter.getWaitersDetailed()));
+    }
+
+    @Benchmark
+    public byte[] modelDashboard() throws Exception {
+        return objectMapper.writeValueAsBytes(Dashboard.snapshot());
+    }
+
+    @Benchmark
+    public void httpFiveEndpoints(Blackhole blackhole) throws Exception {
+        changeFloor();
+        for (String endpoint : DASHBOARD_ENDPOINTS) {
+            blackhole.consume(get(endpoint));
+        }
+    }
+
+    @Benchmark
+    public byte[] httpDashboard() throws Exception {
+        changeFloor();
+        return get("/dashboard");
+    }
+
+    // Adds to an existing line, so the orders keep their size however long the run
+    private void changeFloor() {
+        int orderId = openOrderIds.get(nextOpenOrder);
+        nextOpenOrder = (nextOpenOrder + 1) % openOrderIds.size();
+        Order.addItemsToOrder(orderId, ADDED_ITEM);
+    }
+
+    // Plain keep-alive GET; HttpURLConnection reuses the connection once the body is read
+    private byte[] get(String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+        if (connection.getResponseCode() != 200) {
+            throw new IllegalStateException(path + " returned " + connection.getResponseCode());
+        }
+        try (InputStream in = connection.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package backend.bench;
+
+import backend.models.Patron;
+import backend.models.Snapshot;
+import backend.models.TableManager;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Seating the next party when a table frees up, with a long dine-in queue.
+// Every table and waiter slot is taken and the waiting parties cycle through
+// group sizes 1 to 8 plus an occasional party of 12 that no table fits. Each
+// operation releases the next table round the floor, which seats the earliest
+// waiting party that fits it. Releases use up waiting parties, so the floor is
+// restored from a snapshot before every iteration and the score is the time
+// for the whole batch; divide by the batch size for one release.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = DineInSeatingBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = DineInSeatingBenchmark.BATCH)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+@State(Scope.Thread)
+public class DineInSeatingBenchmark {
+
+    static final int BATCH = 500;
+
+    @Param({ "1000", "10000" })
+    public int waitingParties;
+
+    private byte[] floor;
+    private int tableCount;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+
+        // Fill every table with a party of its size; they also take every waiter slot
+        tableCount = TableManager.getAllTables().size();
+        for (TableManager.Table table : TableManager.getAllTables()) {
+            new Patron("Customer", table.getTableSize(), 1).joinQueue();
+        }
+        for (int i = 0; i < waitingParties; i++) {
+            int groupSize = i % 10 == 9 ? 12 : 1 + i % 8;
+            new Patron("Customer", groupSize, 1).joinQueue();
+        }
+        floor = Snapshot.capture(0);
+    }
+
+    @Setup(Level.Iteration)
+    public void restoreFloor() throws IOException {
+        Snapshot.restore(floor);
+        next = 0;
+    }
+
+    @Benchmark
+    public Patron releaseTable() {
+        TableManager.Table table = TableManager.getTableByNumber(1 + next++ % tableCount);
+        table.releaseTable();
+        return table.getPatron();
+    }
+}
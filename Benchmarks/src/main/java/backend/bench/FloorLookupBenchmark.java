@@ -0,0 +1,61 @@
+package backend.bench;
+
+import backend.models.TableManager;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Table and waiter lookups on a quiet floor and on a busy one, where only the
+// last eight-seater and the last waiter are free so both searches go the long
+// way round. Each lookup is handed straight back so the floor stays the same.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FloorLookupBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean busyFloor;
+
+    @Param({ "2" })
+    public int groupSize;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+        if (!busyFloor)
+            return;
+
+        // Take every table but one eight-seater out of the available queues
+        int free = TableManager.getAllTables().size() - 1;
+        for (int i = 0; i < free; i++) {
+            TableManager.getAvailableTable(1);
+        }
+
+        // Fill every waiter's dine-in slots, then free the last waiter again
+        while (Waiter.getAvailableWaiterForDineIn() != null) {
+        }
+        Waiter last = Waiter.findWaiterByStaffId("STF004");
+        for (int i = 0; i < 4; i++) {
+            last.releaseDineInSlot();
+        }
+    }
+
+    @Benchmark
+    public TableManager.Table getAvailableTable() {
+        TableManager.Table table = TableManager.getAvailableTable(groupSize);
+        table.releaseTable();
+        return table;
+    }
+
+    @Benchmark
+    public Waiter getAvailableWaiterForDineIn() {
+        Waiter waiter = Waiter.getAvailableWaiterForDineIn();
+        waiter.releaseDineInSlot();
+        return waiter;
+    }
+}
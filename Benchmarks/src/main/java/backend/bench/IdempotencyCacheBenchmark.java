@@ -0,0 +1,60 @@
+package backend.bench;
+
+import backend.controllers.IdempotencyCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cost of the Idempotency-Key cache per request: storing new keys while the
+// cache sits at its entry cap (so every store also evicts), and replaying
+// stored responses for retried keys.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class IdempotencyCacheBenchmark {
+
+    private static final int MAX_ENTRIES = 10000;
+
+    private final AtomicLong nextKey = new AtomicLong();
+    private final byte[] body = new byte[400];
+    // Every request here carries the same body, so replays always match
+    private final byte[] requestHash = new byte[32];
+    private IdempotencyCache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        cache = new IdempotencyCache(600, MAX_ENTRIES, Long.MAX_VALUE);
+        for (int i = 0; i < MAX_ENTRIES; i++) {
+            store("/api/orders/create replay-" + i);
+        }
+    }
+
+    @Benchmark
+    public Object storeNewKey() throws InterruptedException {
+        return store("/api/orders/create key-" + nextKey.getAndIncrement());
+    }
+
+    @Benchmark
+    public Object replayStoredKey() throws InterruptedException {
+        // Early replay keys are evicted once storeNewKey has run, keep hitting the newest ones
+        long newest = nextKey.get();
+        String key = newest == 0
+                ? "/api/orders/create replay-" + ThreadLocalRandom.current().nextInt(MAX_ENTRIES)
+                : "/api/orders/create key-" + (newest - 1 - ThreadLocalRandom.current().nextInt((int) Math.min(newest, 1000)));
+        return cache.claim(key, requestHash).getStored();
+    }
+
+    private IdempotencyCache.Claim store(String key) throws InterruptedException {
+        IdempotencyCache.Claim claim = cache.claim(key, requestHash);
+        if (claim.getStored() == null) {
+            cache.complete(claim, new IdempotencyCache.StoredResponse(200, "application/json", body));
+        }
+        return claim;
+    }
+}
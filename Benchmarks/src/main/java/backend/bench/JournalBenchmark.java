@@ -0,0 +1,64 @@
+package backend.bench;
+
+import backend.models.Journal;
+import backend.models.Order;
+import backend.models.Patron;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cost of journaling a full takeout flow (add patron, create order, pay) with and
+// without the write-ahead journal. Concurrent writers share fsyncs through group
+// commit, so compare "-t 1" against higher thread counts; SampleTime reports p99.
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean journal;
+
+    private Path directory;
+    private List<Order.OrderItemRequest> items;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Waiter.defineWaiters();
+        items = List.of(BenchData.item("Classic Burger", 1), BenchData.item("Coffee", 2));
+
+        if (journal) {
+            directory = Files.createTempDirectory("journal-bench");
+            Journal.open(directory, 0);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (directory != null) {
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory)) {
+                for (Path segment : segments) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Benchmark
+    public Object takeoutFlow() {
+        int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+        Map<String, Object> order = Order.createOrder(patronId, items);
+        return Order.markOrderAsPaid((Integer) order.get("orderId"));
+    }
+}
@@ -0,0 +1,41 @@
+package backend.bench;
+
+import backend.models.LatencyHistogram;
+import backend.models.Metrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Overhead of timing a hot path: recording into one histogram shared by all
+// threads, the full nanoTime-and-record pattern used in the model, and
+// rendering the Prometheus page a scraper would fetch.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Benchmark
+    public void record() {
+        histogram.record(ThreadLocalRandom.current().nextLong(1_000, 5_000_000));
+    }
+
+    @Benchmark
+    public void timeAndRecord() {
+        histogram.recordSince(System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int renderPrometheus() {
+        StringBuilder out = new StringBuilder(8192);
+        Metrics.writePrometheus(out);
+        return out.length();
+    }
+}
@@ -0,0 +1,369 @@
+package backend.bench;
+
+import backend.models.LatencyHistogram;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Synthetic restaurant day against a running backend.
+//
+// Parties arrive at random (Poisson) at the given rate, each on its own
+// virtual thread, and go through the same calls the front end makes: add the
+// patron (dine-in with a realistic group size, or takeout), create the order,
+// sometimes add items later, then pay once the meal or the takeout wait is
+// over. Every call goes through one of a fixed number of terminals, so
+// terminals bound the request concurrency the way staff do. Dashboard clients
+// either hold the /api/events stream open, as main.js does, or poll
+// /api/dashboard every three seconds like its fallback. A dine-in party
+// turned away for lack of tables or waiters orders takeout instead.
+//
+// At the end it prints, per endpoint, throughput, error counts and latency
+// percentiles. Start the backend first, then e.g.
+//   java -cp target/benchmarks.jar backend.bench.LoadGenerator --duration 120 --arrivals 20 --terminals 16
+// Options: --url, --duration (s), --arrivals (parties/s), --terminals, --dashboards,
+// --dashboard-mode (sse|poll), --dine-in-share (0-1), --meal-seconds, --takeout-seconds, --seed
+public final class LoadGenerator {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final long DASHBOARD_POLL_MILLIS = 3000;
+
+    // Party sizes for dine-in, weighted roughly like an evening service
+    private static final int[] GROUP_SIZES = { 1, 2, 2, 2, 2, 3, 4, 4, 4, 5, 6, 6, 8 };
+
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Semaphore terminals;
+    private final double dineInShare;
+    private final double mealSeconds;
+    private final double takeoutSeconds;
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentSkipListMap<>();
+    private final LongAdder partiesArrived = new LongAdder();
+    private final LongAdder partiesServed = new LongAdder();
+    private final LongAdder dineInTurnedAway = new LongAdder();
+    private final LongAdder dashboardEvents = new LongAdder();
+
+    private List<String> menuItems;
+
+    private LoadGenerator(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("url", "http://localhost:8080");
+        this.terminals = new Semaphore(intOption("terminals", 8));
+        this.dineInShare = Double.parseDouble(option("dine-in-share", "0.6"));
+        this.mealSeconds = Double.parseDouble(option("meal-seconds", "20"));
+        this.takeoutSeconds = Double.parseDouble(option("takeout-seconds", "5"));
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new LoadGenerator(options).run();
+    }
+
+    private void run() throws Exception {
+        int durationSeconds = intOption("duration", 60);
+        double arrivalsPerSecond = Double.parseDouble(option("arrivals", "5"));
+        int dashboards = intOption("dashboards", 4);
+        boolean sse = option("dashboard-mode", "sse").equals("sse");
+        Random random = new Random(Long.parseLong(option("seed", "1")));
+
+        menuItems = new ArrayList<>();
+        for (JsonNode item : call("GET", "/api/menu/items", null).body) {
+            menuItems.add(item.get("name").asText());
+        }
+
+        System.out.printf("Load: %.1f parties/s for %d s, %d terminals, %d %s dashboards against %s%n",
+                arrivalsPerSecond, durationSeconds, terminals.availablePermits(), dashboards,
+                sse ? "streaming" : "polling", baseUrl);
+
+        // Dashboards are abandoned at the end rather than awaited, a stream may sit in a read
+        ExecutorService viewers = Executors.newVirtualThreadPerTaskExecutor();
+        try (ExecutorService parties = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < dashboards; i++) {
+                viewers.execute(sse ? this::streamDashboard : this::pollDashboard);
+            }
+
+            long start = System.nanoTime();
+            long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+            long nextReport = start + TimeUnit.SECONDS.toNanos(10);
+            long nextArrival = start;
+            while (System.nanoTime() < end) {
+                // Exponential gaps between arrivals give a Poisson arrival process
+                nextArrival += (long) (-Math.log(1 - random.nextDouble()) / arrivalsPerSecond * 1e9);
+                long sleep = Math.min(nextArrival, end) - System.nanoTime();
+                if (sleep > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                }
+                if (nextArrival >= end)
+                    break;
+
+                long seed = random.nextLong();
+                partiesArrived.increment();
+                parties.execute(() -> serveParty(new Random(seed)));
+
+                if (System.nanoTime() >= nextReport) {
+                    System.out.printf("  %3d s: %d parties arrived, %d served%n",
+                            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start),
+                            partiesArrived.sum(), partiesServed.sum());
+                    nextReport += TimeUnit.SECONDS.toNanos(10);
+                }
+            }
+
+            // Let seated parties finish their meals, then stop the dashboards
+            parties.shutdown();
+            long drainSeconds = (long) (mealSeconds * 2) + 30;
+            if (!parties.awaitTermination(drainSeconds, TimeUnit.SECONDS)) {
+                System.out.println("  parties still seated after " + drainSeconds + " s, reporting anyway");
+                parties.shutdownNow();
+            }
+            running.set(false);
+            viewers.shutdownNow();
+            report(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / 1000.0);
+        }
+    }
+
+    // PARTY FLOW: Seat or queue, order, maybe add items, wait, pay
+    private void serveParty(Random random) {
+        try {
+            boolean dineIn = random.nextDouble() < dineInShare;
+            int groupSize = dineIn ? GROUP_SIZES[random.nextInt(GROUP_SIZES.length)] : 1;
+
+            Response patron = call("POST", "/api/patrons/add",
+                    "{\"orderType\":" + (dineIn ? 1 : 0) + ",\"groupSize\":" + groupSize + "}");
+            if (dineIn && patron.status == 400) {
+                dineInTurnedAway.increment();
+                dineIn = false;
+                groupSize = 1;
+                patron = call("POST", "/api/patrons/add", "{\"orderType\":0,\"groupSize\":1}");
+            }
+            if (!patron.ok())
+                return;
+
+            Response order = call("POST", "/api/orders/create", "{\"patronId\":" + patron.body.get("id").asInt()
+                    + ",\"items\":" + basket(random, groupSize) + "}");
+            if (!order.ok())
+                return;
+            int orderId = order.body.get("orderId").asInt();
+
+            // Dine-in tables often order another round; takeout rarely changes its mind
+            if (random.nextDouble() < (dineIn ? 0.6 : 0.1)) {
+                pause(random, (dineIn ? mealSeconds : takeoutSeconds) * 0.3);
+                call("POST", "/api/orders/" + orderId + "/add-items", basket(random, Math.max(1, groupSize / 2)));
+            }
+
+            pause(random, dineIn ? mealSeconds : takeoutSeconds);
+            if (call("POST", "/api/orders/" + orderId + "/mark-paid", null).ok()) {
+                partiesServed.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Already counted against the endpoint that failed
+        }
+    }
+
+    // DASHBOARDS: Hold the event stream open and count what arrives
+    private void streamDashboard() {
+        while (running.get()) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/events"))
+                        .header("Accept", "text/event-stream").GET().build();
+                long start = System.nanoTime();
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                boolean synced = false;
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while (running.get() && (line = reader.readLine()) != null) {
+                        if (!line.startsWith("event:"))
+                            continue;
+                        if (!synced) {
+                            stats("GET /api/events (first sync)").record(start, response.statusCode());
+                            synced = true;
+                        }
+                        dashboardEvents.increment();
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                stats("GET /api/events (first sync)").failures.increment();
+                if (!sleepQuietly(1000))
+                    return;
+            }
+        }
+    }
+
+    // DASHBOARDS: The fallback poll, revalidating with the last ETag like a browser cache
+    private void pollDashboard() {
+        String etag = null;
+        while (running.get()) {
+            try {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/dashboard")).GET();
+                if (etag != null) {
+                    request.header("If-None-Match", etag);
+                }
+                long start = System.nanoTime();
+                HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                stats("GET /api/dashboard").record(start, response.statusCode());
+                etag = response.headers().firstValue("ETag").orElse(etag);
+                dashboardEvents.increment();
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                stats("GET /api/dashboard").failures.increment();
+            }
+            if (!sleepQuietly(DASHBOARD_POLL_MILLIS))
+                return;
+        }
+    }
+
+    // HELPER METHODS
+    // One API call through a free terminal; waiting for the terminal is not part of the latency
+    private Response call(String method, String path, String json) throws Exception {
+        String label = method + " " + path.replaceAll("/\\d+", "/{id}");
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (method.equals("POST")) {
+            request.header("Content-Type", "application/json")
+                    .header("Idempotency-Key", UUID.randomUUID().toString())
+                    .POST(json != null ? HttpRequest.BodyPublishers.ofString(json)
+                            : HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.GET();
+        }
+
+        terminals.acquire();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            stats(label).record(start, response.statusCode());
+            byte[] body = response.body();
+            return new Response(response.statusCode(), body.length > 0 ? JSON.readTree(body) : null);
+        } catch (Exception e) {
+            stats(label).failures.increment();
+            throw e;
+        } finally {
+            terminals.release();
+        }
+    }
+
+    private String basket(Random random, int people) {
+        StringBuilder items = new StringBuilder("[");
+        int lines = 1 + random.nextInt(Math.min(people, 4) + 1);
+        for (int line = 0; line < lines; line++) {
+            if (line > 0) {
+                items.append(',');
+            }
+            String name = menuItems.get(random.nextInt(menuItems.size()));
+            items.append("{\"name\":\"").append(name.replace("\"", "\\\"")).append("\",\"quantity\":")
+                    .append(1 + random.nextInt(people)).append('}');
+        }
+        return items.append(']').toString();
+    }
+
+    // Sleep for 50-150% of the given time
+    private void pause(Random random, double seconds) throws InterruptedException {
+        Thread.sleep((long) (seconds * (0.5 + random.nextDouble()) * 1000));
+    }
+
+    private boolean sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private EndpointStats stats(String label) {
+        return endpoints.computeIfAbsent(label, k -> new EndpointStats());
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(option(name, String.valueOf(defaultValue)));
+    }
+
+    private void report(double seconds) {
+        System.out.printf("%nRan %.1f s: %d parties arrived, %d paid, %d dine-in parties sent to takeout, "
+                + "%d dashboard updates%n%n", seconds, partiesArrived.sum(), partiesServed.sum(),
+                dineInTurnedAway.sum(), dashboardEvents.sum());
+        System.out.printf("%-38s %8s %8s %6s %6s %6s %9s %9s %9s %9s%n", "Endpoint", "requests", "req/s",
+                "4xx", "5xx", "failed", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            EndpointStats stats = entry.getValue();
+            long count = stats.latency.getCount();
+            long[] p = stats.latency.percentiles(0.5, 0.99, 0.999, 1.0);
+            System.out.printf("%-38s %8d %8.1f %6d %6d %6d %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), count,
+                    count / seconds, stats.clientErrors.sum(), stats.serverErrors.sum(), stats.failures.sum(),
+                    p[0] / 1e6, p[1] / 1e6, p[2] / 1e6, p[3] / 1e6);
+            requests += count + stats.failures.sum();
+            errors += stats.serverErrors.sum() + stats.failures.sum();
+        }
+        System.out.printf("%nTotal %d requests, %.1f req/s, error rate %.3f%% (5xx and failed; "
+                + "4xx are turned-away dine-in parties and other rejections)%n",
+                requests, requests / seconds, requests > 0 ? 100.0 * errors / requests : 0.0);
+    }
+
+    // INNER CLASSES
+    private static class EndpointStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        void record(long startNanos, int status) {
+            latency.recordSince(startNanos);
+            if (status >= 500) {
+                serverErrors.increment();
+            } else if (status >= 400) {
+                clientErrors.increment();
+            }
+        }
+    }
+
+    private static class Response {
+        private final int status;
+        private final JsonNode body;
+
+        Response(int status, JsonNode body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
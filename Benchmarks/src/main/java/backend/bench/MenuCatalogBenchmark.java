@@ -0,0 +1,74 @@
+package backend.bench;
+
+import backend.models.MenuCatalog;
+import backend.models.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Name lookup cost as the catalog grows: indexed catalog vs the old linear equalsIgnoreCase scan
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MenuCatalogBenchmark {
+
+    private static final String[] CATEGORIES = { "Main Meal", "Drinks", "Sides", "Desserts", "Specials", "Wine" };
+
+    @Param({ "17", "1000", "5000", "20000" })
+    public int catalogSize;
+
+    private List<Order.MenuItem> items;
+    private MenuCatalog catalog;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            String category = CATEGORIES[i % CATEGORIES.length];
+            items.add(new Order.MenuItem("Item " + i, 10 + (i % 200), category, "Synthetic SKU " + i));
+        }
+        catalog = new MenuCatalog(items);
+
+        // Mixed-case queries spread over the whole catalog
+        queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            String name = "Item " + ((i * 7919L) % catalogSize);
+            queries[i] = (i % 2 == 0) ? name.toUpperCase(Locale.ROOT) : name;
+        }
+    }
+
+    private String nextQuery() {
+        next = (next + 1) & (queries.length - 1);
+        return queries[next];
+    }
+
+    @Benchmark
+    public Order.MenuItem indexedLookup() {
+        return catalog.findByName(nextQuery());
+    }
+
+    @Benchmark
+    public Order.MenuItem linearScanLookup() {
+        String name = nextQuery();
+        for (Order.MenuItem item : items) {
+            if (item.getName().equalsIgnoreCase(name)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public List<Order.MenuItem> categoryLookup() {
+        next = (next + 1) % CATEGORIES.length;
+        return catalog.getByCategory(CATEGORIES[next]);
+    }
+}
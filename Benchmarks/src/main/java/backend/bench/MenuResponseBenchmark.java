@@ -0,0 +1,51 @@
+package backend.bench;
+
+import backend.controllers.MenuResponseCache;
+import backend.models.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of the menu endpoints: serialising the menu through Jackson
+// on every call versus handing out the cached, pre-serialised response.
+// Run with "-prof gc" to compare allocation per request.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MenuResponseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private MenuResponseCache cache;
+    private String etag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        cache = new MenuResponseCache(objectMapper);
+        etag = cache.itemsWithDescriptions(null, null).getHeaders().getETag();
+    }
+
+    @Benchmark
+    public byte[] serializePerRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(Order.getMenuItemsWithDescriptions());
+    }
+
+    @Benchmark
+    public Object cachedGzip() {
+        return cache.itemsWithDescriptions(null, "gzip, deflate, br");
+    }
+
+    @Benchmark
+    public Object cachedNotModified() {
+        return cache.itemsWithDescriptions(etag, "gzip, deflate, br");
+    }
+
+    @Benchmark
+    public Object cachedCategory() {
+        return cache.category("Drinks", null, "gzip, deflate, br");
+    }
+}
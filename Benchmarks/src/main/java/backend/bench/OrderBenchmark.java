@@ -0,0 +1,56 @@
+package backend.bench;
+
+import backend.models.Order;
+import backend.models.Patron;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Order hot paths against a registry holding the given number of open orders.
+// Payments live in PaymentBenchmark since each one uses up an order.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderBenchmark {
+
+    @Param({ "1024", "100000" })
+    public int openOrders;
+
+    private int patronId;
+    private int[] orderIds;
+    private int next;
+    private List<Order.OrderItemRequest> firstItems;
+    private List<Order.OrderItemRequest> newItems;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        patronId = new Patron("Customer", 1, 0).getId();
+        firstItems = List.of(
+                BenchData.item("Classic Burger", 1),
+                BenchData.item("French Fries", 1),
+                BenchData.item("Coca Cola", 1));
+
+        orderIds = new int[openOrders];
+        for (int i = 0; i < openOrders; i++) {
+            orderIds[i] = (int) Order.createOrder(patronId, firstItems).get("orderId");
+        }
+
+        // One existing line and one new line per call
+        newItems = List.of(BenchData.item("coca cola", 1), BenchData.item("Garlic Bread", 1));
+    }
+
+    @Benchmark
+    public Object createOrder() {
+        return Order.createOrder(patronId, firstItems);
+    }
+
+    @Benchmark
+    public Object addItemsToOrder() {
+        next = (next + 1) % orderIds.length;
+        return Order.addItemsToOrder(orderIds[next], newItems);
+    }
+}
@@ -0,0 +1,107 @@
+package backend.bench;
+
+import backend.models.Order;
+import backend.models.OrderHistory;
+import backend.models.OrderLines;
+import backend.models.Patron;
+import backend.models.Reports;
+import backend.models.TableManager;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Revenue by category, waiter and hour for a busy day, computed by walking
+// the paid orders and their lines versus from the columnar OrderHistory,
+// with scalar loops and with the Vector API. The daily report is included as
+// the cost of the existing report path on the same data. The vector variant
+// needs the Backend installed with -Pvector-api.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g", "--add-modules=jdk.incubator.vector" })
+@State(Scope.Benchmark)
+public class OrderHistoryBenchmark {
+
+    private static final ZoneId ZONE = ZoneId.of("Africa/Johannesburg");
+
+    @Param({ "100000", "1000000" })
+    public int orders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+        List<List<Order.OrderItemRequest>> baskets = List.of(
+                List.of(BenchData.item("Classic Burger", 2), BenchData.item("Coffee", 1),
+                        BenchData.item("French Fries", 1)),
+                List.of(BenchData.item("Garden Salad", 1), BenchData.item("Still Water", 2)),
+                List.of(BenchData.item("Grilled Steak", 1), BenchData.item("Chocolate Cake", 1),
+                        BenchData.item("Coffee", 2)));
+
+        // Paid takeout orders spread over a twelve hour day
+        long opening = 1_704_096_000_000L;
+        for (int i = 0; i < orders; i++) {
+            int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+            long paidAt = opening + (long) i * 12 * 3_600_000L / orders;
+            Map<String, Object> order = Order.createOrder(patronId, baskets.get(i % baskets.size()), paidAt);
+            Order.markOrderAsPaid((Integer) order.get("orderId"), paidAt);
+        }
+    }
+
+    @Benchmark
+    public void objectGraph(Blackhole bh) {
+        Map<String, Long> byCategory = new HashMap<>();
+        Map<String, Long> byWaiter = new HashMap<>();
+        long[] byHour = new long[24];
+        long offsetMillis = ZONE.getRules().getOffset(Instant.now()).getTotalSeconds() * 1000L;
+
+        for (Order order : Order.getAllOrders()) {
+            if (!order.isPaid())
+                continue;
+            OrderLines lines = order.getLines();
+            int hour = (int) Math.floorMod((order.getPaidAt() + offsetMillis) / 3_600_000L, 24L);
+            for (int line = 0; line < lines.size(); line++) {
+                Order.MenuItem item = lines.menuItemAt(line);
+                long cents = item.getPriceCents() * lines.quantityAt(line);
+                byCategory.merge(item.getCategory(), cents, Long::sum);
+                byWaiter.merge(order.getWaiterStaffId(), cents, Long::sum);
+                byHour[hour] += cents;
+            }
+        }
+        bh.consume(byCategory);
+        bh.consume(byWaiter);
+        bh.consume(byHour);
+    }
+
+    @Benchmark
+    public void columnarScalar(Blackhole bh) {
+        OrderHistory.setVectorized(false);
+        bh.consume(OrderHistory.revenueByCategory());
+        bh.consume(OrderHistory.revenueByWaiter());
+        bh.consume(OrderHistory.revenueByHour(ZONE));
+    }
+
+    @Benchmark
+    public void columnarVector(Blackhole bh) {
+        OrderHistory.setVectorized(true);
+        if (!OrderHistory.isVectorized()) {
+            throw new IllegalStateException("Vector API kernel unavailable; install the Backend with -Pvector-api");
+        }
+        bh.consume(OrderHistory.revenueByCategory());
+        bh.consume(OrderHistory.revenueByWaiter());
+        bh.consume(OrderHistory.revenueByHour(ZONE));
+    }
+
+    @Benchmark
+    public Reports.DailyReport dailyReport() {
+        return Reports.generateDailyReport();
+    }
+}
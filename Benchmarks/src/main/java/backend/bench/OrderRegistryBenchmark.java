@@ -0,0 +1,52 @@
+package backend.bench;
+
+import backend.models.Order;
+import backend.models.Patron;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Multi-threaded throughput of order creation and lookup against the shared registry.
+// Run with e.g. "-t 1", "-t 4", "-t 8" to compare thread counts.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class OrderRegistryBenchmark {
+
+    @Param({ "10000" })
+    public int preloadedOrders;
+
+    private int patronId;
+    private int maxOrderId;
+    private List<Order.OrderItemRequest> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Takeout patron that is never queued, so orders can be created without touching tables or waiters
+        patronId = new Patron("Customer", 1, 0).getId();
+        items = List.of(BenchData.item("Classic Burger", 2), BenchData.item("Coca Cola", 2));
+
+        for (int i = 0; i < preloadedOrders; i++) {
+            Order.createOrder(patronId, items);
+        }
+        maxOrderId = preloadedOrders;
+    }
+
+    @Benchmark
+    public Object createOrder() {
+        return Order.createOrder(patronId, items);
+    }
+
+    @Benchmark
+    public void findOrderById(Blackhole bh) {
+        int orderId = 1 + ThreadLocalRandom.current().nextInt(maxOrderId);
+        bh.consume(Order.findOrderById(orderId));
+    }
+}
@@ -0,0 +1,92 @@
+package backend.bench;
+
+import backend.models.ArchivedDay;
+import backend.models.Order;
+import backend.models.OrderArchive;
+import backend.models.ParallelReports;
+import backend.models.Patron;
+import backend.models.ReportTotals;
+import backend.models.TableManager;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Report over an archived history, scanned sequentially versus with the
+// fork-join engine at increasing pool sizes. The history is split over
+// several archived days like a multi-day range report.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+@State(Scope.Benchmark)
+public class ParallelReportBenchmark {
+
+    private static final int DAYS = 4;
+    private static final int ORDERS_PER_ROLLOVER = 50_000;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int orders;
+
+    @Param({ "1", "2", "4", "8" })
+    public int parallelism;
+
+    private List<ArchivedDay> days;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+        OrderArchive.configure(Files.createTempDirectory("report-bench"));
+        List<Order.OrderItemRequest> items = List.of(BenchData.item("Classic Burger", 2),
+                BenchData.item("Coffee", 1), BenchData.item("French Fries", 1));
+
+        // Paid takeout orders, rolled over in batches so they never all sit on the heap
+        LocalDate firstDay = LocalDate.of(2024, 1, 1);
+        int perDay = orders / DAYS;
+        for (int day = 0; day < DAYS; day++) {
+            for (int done = 0; done < perDay; done += ORDERS_PER_ROLLOVER) {
+                for (int i = 0; i < Math.min(ORDERS_PER_ROLLOVER, perDay - done); i++) {
+                    int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+                    Map<String, Object> order = Order.createOrder(patronId, items);
+                    Order.markOrderAsPaid((Integer) order.get("orderId"));
+                }
+                OrderArchive.rollover(firstDay.plusDays(day));
+            }
+        }
+
+        days = new ArrayList<>();
+        for (LocalDate day : OrderArchive.archivedDays()) {
+            days.add(OrderArchive.openDay(day));
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ReportTotals sequential() {
+        ReportTotals totals = new ReportTotals();
+        for (ArchivedDay day : days) {
+            day.forEach(totals::add);
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public ReportTotals forkJoin() {
+        return ParallelReports.aggregate(days, pool);
+    }
+}
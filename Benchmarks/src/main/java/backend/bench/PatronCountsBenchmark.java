@@ -0,0 +1,60 @@
+package backend.bench;
+
+import backend.models.Order;
+import backend.models.Patron;
+import backend.models.TableManager;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The patron tiles the dashboard polls: queue counts, pending-order counts and
+// the dine-in parties with orders, with a long takeout queue of which half has
+// ordered. The counts should not depend on the queue length and the list only
+// on its own size (the seated dine-in parties).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+@State(Scope.Benchmark)
+public class PatronCountsBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int queueLength;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+        List<Order.OrderItemRequest> items = List.of(BenchData.item("Classic Burger", 1), BenchData.item("Coffee", 1));
+
+        for (int i = 0; i < 12; i++) {
+            int patronId = (Integer) Patron.createNewPatron(1, 2).get("id");
+            Order.createOrder(patronId, items);
+        }
+        for (int i = 0; i < queueLength; i++) {
+            int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+            if (i % 2 == 0) {
+                Order.createOrder(patronId, items);
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> queueCounts() {
+        return Patron.getQueueCounts();
+    }
+
+    @Benchmark
+    public Map<String, Integer> pendingOrderCounts() {
+        return Patron.getPendingOrderCounts();
+    }
+
+    @Benchmark
+    public List<Patron> dineInWithOrders() {
+        return Patron.getDineInWithOrders();
+    }
+}
@@ -0,0 +1,57 @@
+package backend.bench;
+
+import backend.models.Order;
+import backend.models.Patron;
+import backend.models.TableManager;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Dine-in arrivals behind a long dine-in queue. Table and waiter limits keep
+// the API from building a queue longer than the floor, so the queue is made of
+// parties too large for any table; they stay waiting and every queue pass
+// walks them. Each arrival is seated, orders and pays so the floor is the same
+// for the next one; queueLength=0 gives the cost of that cycle on its own.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PatronQueueBenchmark {
+
+    @Param({ "0", "100", "1000", "10000" })
+    public int queueLength;
+
+    private List<Order.OrderItemRequest> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+        items = List.of(BenchData.item("Grilled Steak", 2), BenchData.item("Still Water", 2));
+
+        // Waiting parties come with a waiter so they leave the dine-in slots free
+        Waiter waiter = Waiter.findWaiterByStaffId("STF001");
+        for (int i = 0; i < queueLength; i++) {
+            Patron party = new Patron("Customer", 12, 1);
+            party.setWaiter(waiter);
+            party.joinQueue();
+        }
+    }
+
+    @Benchmark
+    public Object createNewPatron() {
+        int patronId = (Integer) Patron.createNewPatron(1, 2).get("id");
+        Map<String, Object> order = Order.createOrder(patronId, items);
+        return Order.markOrderAsPaid((Integer) order.get("orderId"));
+    }
+
+    @Benchmark
+    public void handleDineInQueue() {
+        Patron.handleDineInQueue();
+    }
+}
@@ -0,0 +1,53 @@
+package backend.bench;
+
+import backend.models.Order;
+import backend.models.Patron;
+import backend.models.TableManager;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Paying takeout orders. Every payment uses up an order, so each iteration
+// pays a fresh batch created beforehand and the score is the time for the
+// whole batch; divide by the batch size for the cost of one payment.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = PaymentBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = PaymentBenchmark.BATCH)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+@State(Scope.Thread)
+public class PaymentBenchmark {
+
+    static final int BATCH = 10_000;
+
+    private final int[] orderIds = new int[BATCH];
+    private int next;
+    private List<Order.OrderItemRequest> items;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+        items = List.of(BenchData.item("Classic Burger", 2), BenchData.item("Coffee", 1),
+                BenchData.item("French Fries", 1));
+    }
+
+    // Orders are paid in the order they were placed, as on a normal takeout counter
+    @Setup(Level.Iteration)
+    public void createOrders() {
+        for (int i = 0; i < BATCH; i++) {
+            int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+            Map<String, Object> order = Order.createOrder(patronId, items);
+            orderIds[i] = (Integer) order.get("orderId");
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public Object markOrderAsPaid() {
+        return Order.markOrderAsPaid(orderIds[next++]);
+    }
+}
@@ -0,0 +1,57 @@
+package backend.bench;
+
+import backend.models.Order;
+import backend.models.Patron;
+import backend.models.Snapshot;
+import backend.models.TableManager;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Time to capture and to restore a full business day. The target is restoring
+// a 100k-order day in well under a second.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    @Param({ "100000" })
+    public int ordersPerDay;
+
+    private byte[] image;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+        List<Order.OrderItemRequest> items = List.of(BenchData.item("Classic Burger", 2),
+                BenchData.item("Coffee", 1), BenchData.item("French Fries", 1));
+
+        // Mostly paid takeout orders with a tail still open
+        for (int i = 0; i < ordersPerDay; i++) {
+            int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+            Map<String, Object> order = Order.createOrder(patronId, items);
+            if (i < ordersPerDay - 100) {
+                Order.markOrderAsPaid((Integer) order.get("orderId"));
+            }
+        }
+        image = Snapshot.capture(0);
+    }
+
+    @Benchmark
+    public byte[] capture() throws IOException {
+        return Snapshot.capture(0);
+    }
+
+    @Benchmark
+    public long restore() throws IOException {
+        return Snapshot.restore(image);
+    }
+}
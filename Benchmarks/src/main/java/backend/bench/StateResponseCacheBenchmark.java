@@ -0,0 +1,62 @@
+package backend.bench;
+
+import backend.controllers.StateResponseCache;
+import backend.models.Order;
+import backend.models.Patron;
+import backend.models.Reports;
+import backend.models.TableManager;
+import backend.models.Waiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cost of polling a read endpoint while nothing changes: recomputing and
+// serialising the daily report per request versus the epoch-keyed cache,
+// for a plain GET and for a revalidation carrying the current ETag.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StateResponseCacheBenchmark {
+
+    private ObjectMapper objectMapper;
+    private StateResponseCache cache;
+    private String etag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Waiter.defineWaiters();
+        TableManager.defineTables();
+        List<Order.OrderItemRequest> items = List.of(BenchData.item("Classic Burger", 2),
+                BenchData.item("Coffee", 1), BenchData.item("French Fries", 1));
+        for (int i = 0; i < 1000; i++) {
+            int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+            Map<String, Object> order = Order.createOrder(patronId, items);
+            Order.markOrderAsPaid((Integer) order.get("orderId"));
+        }
+
+        objectMapper = new ObjectMapper();
+        cache = new StateResponseCache(objectMapper);
+        etag = cache.get("reports/daily", null, Reports::getCompleteDailyReport).getHeaders().getETag();
+    }
+
+    @Benchmark
+    public byte[] recomputePerRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(Reports.getCompleteDailyReport());
+    }
+
+    @Benchmark
+    public Object cachedGet() {
+        return cache.get("reports/daily", null, Reports::getCompleteDailyReport);
+    }
+
+    @Benchmark
+    public Object cachedNotModified() {
+        return cache.get("reports/daily", etag, Reports::getCompleteDailyReport);
+    }
+}
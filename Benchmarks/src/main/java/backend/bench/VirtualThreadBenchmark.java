@@ -0,0 +1,119 @@
+package backend.bench;
+
+import backend.Main;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Tomcat on its platform-thread pool (200 threads, the default) versus on
+// virtual threads, with every connection open at once. One invocation is a
+// wave: each of the concurrent connections runs a terminal round (dashboard
+// read, add a takeout patron, create an order, pay it) on its own client
+// virtual thread, and the score is the time until the whole wave is done.
+// With the journal on, writers block on the group-commit fsync, which is
+// where a bounded pool queues connections and virtual threads do not.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx2g", "-Dhttp.maxConnections=4096" })
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    private static final String ITEMS = "[{\"name\":\"Classic Burger\",\"quantity\":1},{\"name\":\"Coffee\",\"quantity\":2}]";
+
+    @Param({ "false", "true" })
+    public boolean virtualThreads;
+
+    @Param({ "200", "1000", "4000" })
+    public int connections;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clients;
+    private ObjectMapper objectMapper;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path dataDir = Files.createTempDirectory("virtual-thread-bench");
+        context = SpringApplication.run(Main.class,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.threads.max=200",
+                "--server.tomcat.max-connections=" + (connections + 1000),
+                "--server.tomcat.accept-count=" + connections,
+                "--pos.data-dir=" + dataDir,
+                "--pos.snapshot.enabled=false",
+                "--logging.level.root=WARN");
+
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+        objectMapper = new ObjectMapper();
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clients.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int wave() throws Exception {
+        List<Future<Integer>> rounds = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            rounds.add(clients.submit(this::terminalRound));
+        }
+        int paid = 0;
+        for (Future<Integer> round : rounds) {
+            paid += round.get();
+        }
+        return paid;
+    }
+
+    private int terminalRound() throws IOException {
+        send("GET", "/dashboard", null);
+        int patronId = send("POST", "/patrons/add", "{\"orderType\":0}").get("id").asInt();
+        int orderId = send("POST", "/orders/create", "{\"patronId\":" + patronId + ",\"items\":" + ITEMS + "}")
+                .get("orderId").asInt();
+        send("POST", "/orders/" + orderId + "/mark-paid", "");
+        return 1;
+    }
+
+    // HELPER METHODS
+    private JsonNode send(String method, String path, String json) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+        connection.setRequestMethod(method);
+        if (json != null) {
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        if (connection.getResponseCode() != 200) {
+            throw new IllegalStateException(method + " " + path + " returned " + connection.getResponseCode());
+        }
+        try (InputStream in = connection.getInputStream()) {
+            return objectMapper.readTree(in.readAllBytes());
+        }
+    }
+}
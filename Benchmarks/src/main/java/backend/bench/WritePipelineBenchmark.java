@@ -0,0 +1,74 @@
+package backend.bench;
+
+import backend.models.CommandPipeline;
+import backend.models.Journal;
+import backend.models.Order;
+import backend.models.Patron;
+import backend.models.Waiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// A takeout flow (add patron, create order, pay) from many threads, with each
+// mutation applied under the StateLock write lock on the calling thread versus
+// queued to the single writer thread of the CommandPipeline. Throughput is
+// flows per millisecond and SampleTime gives the p99/p999 of one flow; run
+// with "-t" to vary the number of concurrent callers.
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+@Threads(8)
+@State(Scope.Benchmark)
+public class WritePipelineBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean singleWriter;
+
+    @Param({ "false", "true" })
+    public boolean journal;
+
+    private Path directory;
+    private List<Order.OrderItemRequest> items;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Waiter.defineWaiters();
+        items = List.of(BenchData.item("Classic Burger", 1), BenchData.item("Coffee", 2));
+
+        if (journal) {
+            directory = Files.createTempDirectory("pipeline-bench");
+            Journal.open(directory, 0);
+        }
+        if (singleWriter) {
+            CommandPipeline.start(1024);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        CommandPipeline.stop();
+        if (directory != null) {
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory)) {
+                for (Path segment : segments) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Benchmark
+    public Object takeoutFlow() {
+        int patronId = (Integer) Patron.createNewPatron(0, null).get("id");
+        Map<String, Object> order = Order.createOrder(patronId, items);
+        return Order.markOrderAsPaid((Integer) order.get("orderId"));
+    }
+}
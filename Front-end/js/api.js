@@ -3,30 +3,77 @@ const API_BASE = 'http://localhost:8080/api';
 // ------------------------------------------
 // API FETCH 
 // ------------------------------------------
+// POSTs carry an Idempotency-Key and are retried with the same key when the
+// network fails, so the server can return the original result instead of
+// applying the change twice.
+const MAX_ATTEMPTS = 3;
+
+// crypto.randomUUID only exists in secure contexts (HTTPS or localhost), and
+// terminals often open the POS over plain HTTP on the LAN; getRandomValues is
+// available everywhere crypto is
+function newIdempotencyKey() {
+    const cryptoApi = globalThis.crypto;
+    if (cryptoApi && typeof cryptoApi.randomUUID === 'function') {
+        return cryptoApi.randomUUID();
+    }
+    if (cryptoApi && typeof cryptoApi.getRandomValues === 'function') {
+        const bytes = cryptoApi.getRandomValues(new Uint8Array(16));
+        return Array.from(bytes, (b) => b.toString(16).padStart(2, '0')).join('');
+    }
+    return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}${Math.random().toString(36).slice(2)}`;
+}
+
 async function apiFetch(endpoint, options = {}) {
-    try {
-        const response = await fetch(`${API_BASE}${endpoint}`, {
-            headers: {
-                'Content-Type': 'application/json',
-                ...options.headers
-            },
-            ...options
-        });
-        
-        if (!response.ok) {
-            throw new Error(`HTTP ${response.status}`);
+    const isMutation = (options.method || 'GET').toUpperCase() === 'POST';
+    const headers = {
+        'Content-Type': 'application/json',
+        ...(isMutation ? { 'Idempotency-Key': newIdempotencyKey() } : {}),
+        ...options.headers
+    };
+
+    for (let attempt = 1; ; attempt++) {
+        try {
+            const response = await fetch(`${API_BASE}${endpoint}`, { ...options, headers });
+
+            if (!response.ok) {
+                throw new Error(`HTTP ${response.status}`);
+            }
+
+            return await response.json();
+        } catch (error) {
+            // fetch rejects with a TypeError when the request never got a response
+            if (isMutation && error instanceof TypeError && attempt < MAX_ATTEMPTS) {
+                continue;
+            }
+            console.error(`API call failed: ${endpoint}`, error);
+            throw error;
         }
-        
-        return await response.json();
-    } catch (error) {
-        console.error(`API call failed: ${endpoint}`, error);
-        throw error;
     }
 }
 
+// ----------------------------------------------------------------
+// FLOOR EVENTS - Live dashboard changes pushed by the backend
+// ----------------------------------------------------------------
+// The stream opens with a 'sync' event holding the whole dashboard, followed by
+// one event per change. EventSource reconnects on its own and every reconnect
+// starts with a fresh sync, so nothing is missed while the connection is down.
+export function openFloorEvents(handlers) {
+    const source = new EventSource(`${API_BASE}/events`);
+    Object.entries(handlers).forEach(([type, handler]) => {
+        source.addEventListener(type, (event) => handler(JSON.parse(event.data)));
+    });
+    source.onerror = () => console.warn('Floor event stream interrupted, reconnecting...');
+    return source;
+}
+
 // ----------------------------------------------------------------
 // DASHBOARD STATS API - For dashboard statistics and counts
 // ----------------------------------------------------------------
+// Tables, pending orders and counts, waiters and the daily report in one response
+export async function loadDashboard() {
+    return await apiFetch('/dashboard');
+}
+
 export async function getQueueCounts() {
     return await apiFetch('/patrons/queue-counts');
 }
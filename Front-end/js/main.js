@@ -183,27 +183,94 @@ async function loadAllData() {
         console.error('Failed to load menu:', error);
         ui.showMenuError('Failed to load menu');
     }
-    
+
+    // Tables, orders, counts and waiters arrive with the floor event stream's first sync;
+    // browsers without EventSource poll the consolidated dashboard endpoint instead
+    if ('EventSource' in window) {
+        connectFloorEvents();
+    } else {
+        await refreshDashboard();
+        setInterval(refreshDashboard, 3000);
+    }
+}
+
+async function refreshDashboard() {
     try {
-        // Load multiple data sources in parallel for better performance
-        const [tables, pendingOrders, pendingCounts, dailyReport, waiters] = await Promise.all([
-            api.loadTables().catch(err => []),
-            api.loadPendingOrders().catch(err => []),
-            api.getPendingOrderCounts().catch(err => ({dineInPending: 0, takeoutPending: 0})),
-            api.loadDailyReport().catch(err => ({})),
-            api.loadWaiters().catch(err => [])
-        ]);
-        
-        // Update UI with loaded data
-        ui.renderTables(tables);
-        ui.renderPendingOrders(pendingOrders);
-        updateDashboardStats(dailyReport, pendingCounts, pendingOrders, waiters);
-        
+        applyDashboard(await api.loadDashboard());
     } catch (error) {
-        console.error('Failed to load some data:', error);
+        console.error('Failed to refresh dashboard data:', error);
     }
 }
 
+// -----------------------------------------------------------------------------
+// LIVE DASHBOARD - Kept up to date by the backend's floor event stream
+// -----------------------------------------------------------------------------
+const floor = {
+    tables: new Map(),
+    pendingOrders: new Map(),
+    pendingCounts: {dineInPending: 0, takeoutPending: 0},
+    totals: {},
+    waiters: new Map()
+};
+let renderScheduled = false;
+
+function connectFloorEvents() {
+    api.openFloorEvents({
+        'sync': applyDashboard,
+        'table': (table) => {
+            floor.tables.set(table.tableNumber, table);
+            scheduleRender();
+        },
+        'order-created': (order) => {
+            floor.pendingOrders.set(order.orderId, order);
+            scheduleRender();
+        },
+        'order-updated': (order) => {
+            floor.pendingOrders.set(order.orderId, order);
+            scheduleRender();
+        },
+        'order-paid': (paid) => {
+            floor.pendingOrders.delete(paid.orderId);
+            scheduleRender();
+        },
+        'queues': (counts) => {
+            floor.pendingCounts = counts;
+            scheduleRender();
+        },
+        'totals': (totals) => {
+            floor.totals = totals;
+            scheduleRender();
+        },
+        'waiter': (waiter) => {
+            floor.waiters.set(waiter.staffId, waiter);
+            scheduleRender();
+        }
+    });
+}
+
+// Replace the local state with a full dashboard snapshot
+function applyDashboard(state) {
+    floor.tables = new Map(state.tables.map(table => [table.tableNumber, table]));
+    floor.pendingOrders = new Map(state.pendingOrders.map(order => [order.orderId, order]));
+    floor.pendingCounts = state.pendingCounts;
+    floor.totals = state.totals;
+    floor.waiters = new Map(state.waiters.map(waiter => [waiter.staffId, waiter]));
+    scheduleRender();
+}
+
+// Events often arrive in bursts, so render at most once per frame
+function scheduleRender() {
+    if (renderScheduled) return;
+    renderScheduled = true;
+    requestAnimationFrame(() => {
+        renderScheduled = false;
+        const pendingOrders = [...floor.pendingOrders.values()];
+        ui.renderTables([...floor.tables.values()]);
+        ui.renderPendingOrders(pendingOrders);
+        updateDashboardStats({overview: floor.totals}, floor.pendingCounts, pendingOrders, [...floor.waiters.values()]);
+    });
+}
+
 // Update the dashboard statistics with fresh data
 function updateDashboardStats(dailyReport, pendingCounts, pendingOrders, waiters) {
     // Update queue counts from backend
@@ -249,31 +316,4 @@ document.addEventListener("DOMContentLoaded", async () => {
     await loadAllData();
     
     console.log('--- Application initialized successfully ---');
-    
-    // Auto-refresh dashboard data every 3 seconds to keep the current updated stats 
-    setInterval(async () => {
-        try {
-            const [pendingOrders, pendingCounts, dailyReport, waiters] = await Promise.all([
-                api.loadPendingOrders().catch(err => []),
-                api.getPendingOrderCounts().catch(err => ({dineInPending: 0, takeoutPending: 0})),
-                api.loadDailyReport().catch(err => ({})),
-                api.loadWaiters().catch(err => [])
-            ]);
-            
-            ui.renderPendingOrders(pendingOrders);
-            updateDashboardStats(dailyReport, pendingCounts, pendingOrders, waiters);
-        } catch (error) {
-            console.error('Failed to refresh dashboard data:', error);
-        }
-    }, 3000);
-
-    // Auto-refresh table status every 5 seconds
-    setInterval(async () => {
-        try {
-            const tables = await api.loadTables();
-            ui.renderTables(tables);
-        } catch (error) {
-            console.error('Failed to refresh tables:', error);
-        }
-    }, 5000);
 });
\ No newline at end of file
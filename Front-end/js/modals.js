@@ -91,10 +91,6 @@ export async function submitCustomer() {
         const groupSizeContainer = document.getElementById("groupSizeContainer");
         if (groupSizeContainer) groupSizeContainer.style.display = "none";
         
-        // Refresh table status to show new customer assignment
-        const tables = await api.loadTables();
-        ui.renderTables(tables);
-        
     } catch (error) {
         console.error('Error creating customer:', error);
         // Show user-friendly error messages
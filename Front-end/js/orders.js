@@ -170,9 +170,8 @@ export async function createOrder() {
             alert(`Order created successfully! Order ID: ${result.orderId}`);
         }
         
-        // Close modal and refresh all data
+        // Close modal, the dashboard picks the new order up from the floor event stream
         modals.closeTakeOrderModal();
-        await refreshDataAfterOrder();
         resetCurrentOrder();
         
     } catch (error) {
@@ -181,22 +180,6 @@ export async function createOrder() {
     }
 }
 
-async function refreshDataAfterOrder() {
-    try {
-        // Refresh both pending orders and table status after order creation
-        const [pendingOrders, tables] = await Promise.all([
-            api.loadPendingOrders(),
-            api.loadTables()
-        ]);
-        
-        ui.renderPendingOrders(pendingOrders);
-        ui.renderTables(tables);
-        
-    } catch (error) {
-        console.error('Error refreshing data after order:', error);
-    }
-}
-
 // ---------------------------------------------------------
 // EXISTING ORDER MANAGEMENT (Backend provides real data)
 // -------------------------------------------------------
@@ -305,17 +288,10 @@ export async function confirmPayment() {
         const result = await api.markOrderAsPaid(orderId);
         alert('Payment confirmed successfully!');
         
-        // Close payment modals
+        // Close payment modals, the freed table and paid order arrive as floor events
         modals.closeReceiptModal();
         modals.closeMarkAsPaidModal();
         
-        // Refresh data from backend after payment
-        const orders = await api.loadPendingOrders();
-        ui.renderPendingOrders(orders);
-        
-        const tables = await api.loadTables();
-        ui.renderTables(tables);
-        
     } catch (error) {
         console.error('Payment error:', error);
         alert('Failed to process payment: ' + error.message);